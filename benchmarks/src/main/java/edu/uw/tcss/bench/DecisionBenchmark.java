@@ -0,0 +1,203 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.bench;
+
+import edu.uw.tcss.model.Atv;
+import edu.uw.tcss.model.Bicycle;
+import edu.uw.tcss.model.Car;
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Human;
+import edu.uw.tcss.model.Light;
+import edu.uw.tcss.model.Taxi;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Truck;
+import edu.uw.tcss.model.Vehicle;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the nanoseconds each vehicle type spends per decision.
+ * 
+ * <p>Every invocation sweeps every neighborhood a square can have, that is each 
+ * terrain or no square at all in each direction, and for the full decision every
+ * light as well. Scores are reported per single decision.
+ * 
+ * <p>@OperationsPerInvocation needs compile-time constants, so the sweep sizes are
+ * written out; setUp checks them against the Terrain, Direction and Light enums, 
+ * the same encoding NeighborTable uses, and refuses to run if an enum has changed.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionBenchmark {
+
+    /**
+     * The number of destination terrains, including no square at all: 
+     * Terrain.values().length + 1.
+     */
+    private static final int DESTINATIONS = 7;
+
+    /**
+     * The number of neighborhoods: DESTINATIONS in each of the 4 directions.
+     */
+    private static final int NEIGHBORHOODS = 
+        DESTINATIONS * DESTINATIONS * DESTINATIONS * DESTINATIONS;
+
+    /**
+     * The number of lights: Light.values().length.
+     */
+    private static final int LIGHTS = 3;
+
+    /**
+     * The seed for the vehicle's random choices.
+     */
+    private static final long SEED = 305L;
+
+    /**
+     * The vehicle type to measure.
+     */
+    @Param({"Human", "Truck", "Atv", "Car", "Taxi", "Bicycle"})
+    private String myType;
+
+    /**
+     * The vehicle.
+     */
+    private Vehicle myVehicle;
+
+    /**
+     * Every neighborhood.
+     */
+    private Map<Direction, Terrain>[] myNeighborhoods;
+
+    /**
+     * Every destination terrain, with null for no square.
+     */
+    private Terrain[] myDestinations;
+
+    /**
+     * Every light.
+     */
+    private Light[] myLights;
+
+    /**
+     * Checks the sweep sizes against the enums, then creates the vehicle and every
+     * neighborhood.
+     * 
+     * @throws IllegalStateException if a sweep size no longer matches its enum
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        final Terrain[] terrains = Terrain.values();
+        final Direction[] directions = Direction.values();
+        myLights = Light.values();
+        final long neighborhoods = 
+            Math.round(Math.pow(terrains.length + 1, directions.length));
+        if (DESTINATIONS != terrains.length + 1 || NEIGHBORHOODS != neighborhoods
+            || LIGHTS != myLights.length) {
+            throw new IllegalStateException("Sweep sizes " + DESTINATIONS + ", " 
+                + NEIGHBORHOODS + " and " + LIGHTS + " do not match the enums: "
+                + (terrains.length + 1) + ", " + neighborhoods + " and " 
+                + myLights.length);
+        }
+
+        myVehicle = switch (myType) {
+            case "Human" -> new Human(0, 0, Direction.NORTH);
+            case "Truck" -> new Truck(0, 0, Direction.NORTH);
+            case "Atv" -> new Atv(0, 0, Direction.NORTH);
+            case "Car" -> new Car(0, 0, Direction.NORTH);
+            case "Taxi" -> new Taxi(0, 0, Direction.NORTH);
+            case "Bicycle" -> new Bicycle(0, 0, Direction.NORTH);
+            default -> throw new IllegalArgumentException("Unknown vehicle " + myType);
+        };
+        myVehicle.setRandom(new SplittableRandom(SEED));
+
+        myDestinations = new Terrain[DESTINATIONS];
+        System.arraycopy(terrains, 0, myDestinations, 1, terrains.length);
+
+        myNeighborhoods = new Map[NEIGHBORHOODS];
+        for (int code = 0; code < NEIGHBORHOODS; code++) {
+            final Map<Direction, Terrain> neighbors = new EnumMap<>(Direction.class);
+            int rest = code;
+            for (final Direction dir : directions) {
+                final Terrain terrain = myDestinations[rest % DESTINATIONS];
+                rest /= DESTINATIONS;
+                if (terrain != null) {
+                    neighbors.put(dir, terrain);
+                }
+            }
+            myNeighborhoods[code] = Collections.unmodifiableMap(neighbors);
+        }
+    }
+
+    /**
+     * Chooses a direction in every neighborhood.
+     * 
+     * @param theHole consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(NEIGHBORHOODS)
+    public void chooseDirection(final Blackhole theHole) {
+        for (final Map<Direction, Terrain> neighbors : myNeighborhoods) {
+            theHole.consume(myVehicle.chooseDirection(neighbors));
+        }
+    }
+
+    /**
+     * Tests passing onto every destination terrain under every light.
+     * 
+     * @param theHole consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(DESTINATIONS * LIGHTS)
+    public void canPass(final Blackhole theHole) {
+        for (final Terrain terrain : myDestinations) {
+            for (final Light light : myLights) {
+                theHole.consume(myVehicle.canPass(terrain, light));
+            }
+        }
+    }
+
+    /**
+     * Makes a full decision, as RoadRage.advance() does, in every neighborhood under
+     * every light.
+     * 
+     * @param theHole consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(NEIGHBORHOODS * LIGHTS)
+    public void decide(final Blackhole theHole) {
+        for (final Light light : myLights) {
+            for (final Map<Direction, Terrain> neighbors : myNeighborhoods) {
+                final Direction direction = myVehicle.chooseDirection(neighbors);
+                myVehicle.setDirection(direction);
+                theHole.consume(myVehicle.canPass(neighbors.get(direction), light));
+            }
+        }
+    }
+}
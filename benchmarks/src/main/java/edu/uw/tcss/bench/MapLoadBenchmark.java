@@ -0,0 +1,118 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.bench;
+
+import edu.uw.tcss.io.BinaryMap;
+import edu.uw.tcss.io.CityGenerator;
+import edu.uw.tcss.io.FileLoader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares how long the Scanner parser and the buffer parser take to load a large
+ * generated city map, and how long the same map takes to open and to load in the 
+ * binary format.
+ * 
+ * <p>Usage: {@code MapLoadBenchmark [size] [runs]}. Writes a size by size map with
+ * CityGenerator, then loads it with each parser. A 10000 by 10000 map
+ * needs a heap of about 4 GB ({@code -Xmx4g}).
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+public final class MapLoadBenchmark {
+
+    /**
+     * The map size to use when none is given.
+     */
+    private static final int DEFAULT_SIZE = 10_000;
+
+    /**
+     * The number of timed loads per parser when none is given.
+     */
+    private static final int DEFAULT_RUNS = 3;
+
+    /**
+     * The seed of the generated map.
+     */
+    private static final long SEED = 305L;
+
+    /**
+     * The number of map columns per car on the generated map.
+     */
+    private static final int COLUMNS_PER_CAR = 4;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Private constructor to prevent construction of instances.
+     */
+    private MapLoadBenchmark() {
+        super();
+    }
+
+    /**
+     * Writes the generated map and times both parsers.
+     * 
+     * @param theArgs the map size and the number of runs, both optional
+     * @throws IOException if the map cannot be written or read
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final int size;
+        if (theArgs.length > 0) {
+            size = Integer.parseInt(theArgs[0]);
+        } else {
+            size = DEFAULT_SIZE;
+        }
+        final int runs;
+        if (theArgs.length > 1) {
+            runs = Integer.parseInt(theArgs[1]);
+        } else {
+            runs = DEFAULT_RUNS;
+        }
+
+        final Path map = Files.createTempFile("road-rage-" + size, ".txt");
+        final Path binary = Files.createTempFile("road-rage-" + size, ".rrmap");
+        try {
+            new CityGenerator(size, size, SEED)
+                .setVehicleCount('C', (size + COLUMNS_PER_CAR - 1) / COLUMNS_PER_CAR)
+                .write(map);
+            BinaryMap.convert(map, binary);
+            System.out.printf("Map %d x %d, %d bytes as text, %d bytes as binary%n", size,
+                              size, Files.size(map), Files.size(binary));
+            final File file = map.toFile();
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                FileLoader.readCityWithScanner(file);
+                final double scanner = (System.nanoTime() - start) / NANOS_PER_MILLI;
+                System.gc();
+
+                start = System.nanoTime();
+                FileLoader.readCity(file);
+                final double buffer = (System.nanoTime() - start) / NANOS_PER_MILLI;
+                System.gc();
+
+                start = System.nanoTime();
+                final BinaryMap mapped = BinaryMap.open(binary);
+                final double open = (System.nanoTime() - start) / NANOS_PER_MILLI;
+                mapped.toRoadRage();
+                final double binaryLoad = (System.nanoTime() - start) / NANOS_PER_MILLI;
+                System.gc();
+
+                System.out.printf("run %d: Scanner %.1f ms, buffer %.1f ms, "
+                                  + "binary open %.3f ms, binary load %.1f ms%n",
+                                  run + 1, scanner, buffer, open, binaryLoad);
+            }
+        } finally {
+            Files.deleteIfExists(map);
+            Files.deleteIfExists(binary);
+        }
+    }
+}
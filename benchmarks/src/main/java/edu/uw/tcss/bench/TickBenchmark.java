@@ -0,0 +1,148 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.bench;
+
+import edu.uw.tcss.io.CityGenerator;
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.logic.TickMode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of one RoadRage.advance() tick.
+ * 
+ * <p>The map is either a shipped map file or {@code synthetic:N}, a city of N 
+ * vehicles made by CityGenerator, an even mix of the six types. Run with {@code -prof gc} to report bytes allocated per tick
+ * as {@code gc.alloc.rate.norm}.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TickBenchmark {
+
+    /**
+     * The prefix of a synthetic map parameter.
+     */
+    private static final String SYNTHETIC = "synthetic:";
+
+    /**
+     * The seed for every simulation and generated map.
+     */
+    private static final long SEED = 305L;
+
+    /**
+     * The letters of the vehicle types placed on a generated map.
+     */
+    private static final String VEHICLE_TYPES = "CXTBAH";
+
+    /**
+     * The number of squares per vehicle on a generated map, so the streets are not 
+     * jammed.
+     */
+    private static final int SQUARES_PER_VEHICLE = 8;
+
+    /**
+     * The smallest generated map size.
+     */
+    private static final int MIN_SIZE = 8;
+
+    /**
+     * The map to simulate.
+     */
+    @Param({"maps/city_map1.txt", "maps/city_map2.txt", "synthetic:1000",
+        "synthetic:10000", "synthetic:100000", "synthetic:1000000"})
+    private String myMap;
+
+    /**
+     * How the simulation advances its vehicles.
+     */
+    @Param({"SEQUENTIAL", "TWO_PHASE"})
+    private TickMode myTickMode;
+
+    /**
+     * Whether engine metrics are collected.
+     */
+    @Param({"false", "true"})
+    private boolean myMetrics;
+
+    /**
+     * The simulation.
+     */
+    private RoadRage myRoadRage;
+
+    /**
+     * Loads or builds the map and starts the simulation.
+     * 
+     * @throws IOException if a map file cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (myMap.startsWith(SYNTHETIC)) {
+            myRoadRage = generate(Integer.parseInt(myMap.substring(SYNTHETIC.length())));
+        } else {
+            myRoadRage = (RoadRage) FileLoader.readCity(new File(myMap));
+        }
+        myRoadRage.setSeed(SEED);
+        myRoadRage.setTickMode(myTickMode);
+        myRoadRage.setMetricsEnabled(myMetrics);
+        myRoadRage.start();
+    }
+
+    /**
+     * Advances the simulation one tick.
+     */
+    @Benchmark
+    public void advance() {
+        myRoadRage.advance();
+    }
+
+    /**
+     * Generates a square city with the given number of vehicles and loads it.
+     * 
+     * @param theVehicles the number of vehicles
+     * @return the simulation
+     * @throws IOException if the map cannot be written or read
+     */
+    private static RoadRage generate(final int theVehicles) throws IOException {
+        final int size = Math.max(MIN_SIZE, (int) Math.ceil(
+            Math.sqrt((double) theVehicles * SQUARES_PER_VEHICLE)));
+        final CityGenerator generator = new CityGenerator(size, size, SEED);
+        final int types = VEHICLE_TYPES.length();
+        for (int type = 0; type < types; type++) {
+            final int extra = type < theVehicles % types ? 1 : 0;
+            generator.setVehicleCount(VEHICLE_TYPES.charAt(type), 
+                                      theVehicles / types + extra);
+        }
+        final Path map = Files.createTempFile("road-rage-" + theVehicles, ".txt");
+        try {
+            generator.write(map);
+            return (RoadRage) FileLoader.readCity(map);
+        } finally {
+            Files.deleteIfExists(map);
+        }
+    }
+}
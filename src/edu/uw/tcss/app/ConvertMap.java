@@ -0,0 +1,47 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import edu.uw.tcss.io.BinaryMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts a city text file to the binary map format.
+ * 
+ * <p>Usage: {@code ConvertMap textMapFile binaryMapFile}. Prints the sizes of both files.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 5
+ */
+public final class ConvertMap {
+
+    /**
+     * Private constructor to prevent construction of instances.
+     */
+    private ConvertMap() {
+        super();
+        // do nothing
+    }
+
+    /**
+     * Converts one map.
+     * 
+     * @param theArgs the text map file and the binary map file to write
+     * @throws IOException if either file cannot be used
+     */
+    public static void main(final String... theArgs) throws IOException {
+        if (theArgs.length != 2) {
+            System.err.println("Usage: ConvertMap textMapFile binaryMapFile");
+            return;
+        }
+        final Path text = Path.of(theArgs[0]);
+        final Path binary = Path.of(theArgs[1]);
+        BinaryMap.convert(text, binary);
+        System.out.printf("%s (%d bytes) -> %s (%d bytes)%n", text, Files.size(text),
+                          binary, Files.size(binary));
+    }
+}
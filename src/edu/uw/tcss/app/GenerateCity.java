@@ -0,0 +1,66 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import edu.uw.tcss.io.CityGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a generated city map for load and scaling tests.
+ * 
+ * <p>Usage: {@code GenerateCity width height seed mapFile [vehicles] [blockSize]}, where
+ * vehicles is a comma separated list of counts by map letter, such as
+ * {@code C=1000,X=200,T=200,B=300,A=100,H=500}.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 6
+ */
+public final class GenerateCity {
+
+    /**
+     * The number of required arguments.
+     */
+    private static final int REQUIRED_ARGS = 4;
+
+    /**
+     * Private constructor to prevent construction of instances.
+     */
+    private GenerateCity() {
+        super();
+        // do nothing
+    }
+
+    /**
+     * Generates one map.
+     * 
+     * @param theArgs the width, height, seed, map file, vehicle counts and block size
+     * @throws IOException if the map file cannot be written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        if (theArgs.length < REQUIRED_ARGS) {
+            System.err.println("Usage: GenerateCity width height seed mapFile "
+                               + "[C=n,X=n,T=n,B=n,A=n,H=n] [blockSize]");
+            return;
+        }
+        final CityGenerator generator = new CityGenerator(Integer.parseInt(theArgs[0]),
+                                                          Integer.parseInt(theArgs[1]),
+                                                          Long.parseLong(theArgs[2]));
+        if (theArgs.length > REQUIRED_ARGS) {
+            for (final String entry : theArgs[REQUIRED_ARGS].split(",")) {
+                final String[] parts = entry.trim().split("=");
+                generator.setVehicleCount(parts[0].trim().charAt(0),
+                                          Integer.parseInt(parts[1].trim()));
+            }
+        }
+        if (theArgs.length > REQUIRED_ARGS + 1) {
+            generator.setBlockSize(Integer.parseInt(theArgs[REQUIRED_ARGS + 1]));
+        }
+        final Path map = Path.of(theArgs[3]);
+        generator.write(map);
+        System.out.printf("Wrote %s (%d bytes)%n", map, Files.size(map));
+    }
+}
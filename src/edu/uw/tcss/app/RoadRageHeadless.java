@@ -0,0 +1,119 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.ReplayRecorder;
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.logic.TickMode;
+import edu.uw.tcss.logic.TickSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs the Road Rage simulation without a GUI, as fast as the CPU allows.
+ * 
+ * <p>Usage: {@code RoadRageHeadless [mapFile] [ticks] [tickMode] [seed] [replayLog]},
+ * where tickMode is SEQUENTIAL or TWO_PHASE. Prints the tick rate and the final state of
+ * every vehicle, and records the run to the replay log if one is given.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 16
+ */
+public final class RoadRageHeadless {
+
+    /**
+     * The number of ticks to run when none is given.
+     */
+    private static final int DEFAULT_TICKS = 100_000;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Private constructor to prevent construction of instances.
+     */
+    private RoadRageHeadless() {
+        super();
+        // do nothing
+    }
+
+    /**
+     * Loads a map and runs the simulation for a number of ticks.
+     * 
+     * @param theArgs the map file, the number of ticks, the tick mode, the seed and the
+     *                replay log, all optional
+     * @throws IOException if the map file cannot be read or the replay log written
+     */
+    public static void main(final String... theArgs) throws IOException {
+        final String mapFile;
+        if (theArgs.length > 0) {
+            mapFile = theArgs[0];
+        } else {
+            mapFile = FileLoader.getDefaultCityFile();
+        }
+        final long ticks;
+        if (theArgs.length > 1) {
+            ticks = Long.parseLong(theArgs[1]);
+        } else {
+            ticks = DEFAULT_TICKS;
+        }
+
+        final PropertyChangeEnabledRoadRageControls roadRage =
+                        FileLoader.readCity(new File(mapFile));
+        final TickSnapshot[] latest = new TickSnapshot[1];
+        ReplayRecorder recorder = null;
+        if (roadRage instanceof RoadRage simulation) {
+            if (theArgs.length > 2) {
+                simulation.setTickMode(TickMode.valueOf(theArgs[2].toUpperCase()));
+            }
+            if (theArgs.length > 3) {
+                simulation.setSeed(Long.parseLong(theArgs[3]));
+            }
+            System.out.printf("Seed: %d%n", simulation.getSeed());
+            if (theArgs.length > 4) {
+                recorder = ReplayRecorder.record(simulation, Path.of(theArgs[4]));
+            }
+        } else {
+            // other simulations only report their vehicles to listeners
+            roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT, 
+                theEvent -> latest[0] = (TickSnapshot) theEvent.getNewValue());
+        }
+        roadRage.start();
+
+        // only the ticks are timed; the final state is read once, after the clock stops
+        final long startTime = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            roadRage.advance();
+        }
+        final double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+        if (recorder != null) {
+            recorder.close();
+        }
+
+        final TickSnapshot vehicles;
+        if (roadRage instanceof RoadRage simulation) {
+            vehicles = simulation.takeSnapshot();
+        } else {
+            vehicles = latest[0];
+        }
+        System.out.printf("Map: %s (%d x %d), %d vehicles%n", mapFile,
+                          roadRage.getWidth(), roadRage.getHeight(), vehicles.size());
+        System.out.printf("Ran %d ticks in %.3f s: %.1f ticks/sec%n",
+                          ticks, seconds, ticks / seconds);
+        for (int i = 0; i < vehicles.size(); i++) {
+            System.out.printf("%s at (%d, %d) facing %s, %s%n",
+                              vehicles.getType(i).getSimpleName(), vehicles.getX(i),
+                              vehicles.getY(i), vehicles.getDirection(i),
+                              vehicles.isAlive(i) ? "alive" : "dead");
+        }
+    }
+}
@@ -6,6 +6,7 @@ package edu.uw.tcss.app;
 
 import edu.uw.tcss.view.RoadRageGUI;
 import java.awt.EventQueue;
+import java.nio.file.Path;
 
 /**
  * Runs the Road Rage program.
@@ -29,9 +30,15 @@ public final class RoadRageMain {
     /**
      * Constructs the main GUI window frame.
      * 
-     * @param theArgs Command line arguments (ignored).
+     * @param theArgs Command line arguments: optionally, the city map file or replay
+     *                log to load instead of the default map.
      */
     public static void main(final String... theArgs) {
-        EventQueue.invokeLater(RoadRageGUI::new);
+        if (theArgs.length > 0) {
+            final Path map = Path.of(theArgs[0]);
+            EventQueue.invokeLater(() -> new RoadRageGUI(map));
+        } else {
+            EventQueue.invokeLater(RoadRageGUI::new);
+        }
     }
 }
@@ -0,0 +1,420 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.io;
+
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A city map in a compact binary format, memory-mapped rather than read. Opening a
+ * map only checks its header, and the terrain is read straight from the mapped file
+ * on demand, so even a map of hundreds of millions of squares opens in milliseconds
+ * and is never copied onto the heap until a grid is asked for.
+ *
+ * <p>The format, all integers big-endian:
+ * <ul>
+ * <li>the header: the magic number "RRMP", the format version, the number of rows,
+ *     the number of columns and the number of vehicles, each a 4 byte integer;</li>
+ * <li>the terrain: the Terrain ordinal of every square in row-major order, 4 bits
+ *     each, the even-numbered square of each byte in its low 4 bits;</li>
+ * <li>the vehicles: 10 bytes each, the vehicle's letter from the text format, its
+ *     direction letter, then its x and y coordinates as 4 byte integers.</li>
+ * </ul>
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 5
+ */
+public final class BinaryMap {
+
+    /**
+     * The first 4 bytes of every binary map, "RRMP" in ASCII.
+     */
+    private static final int MAGIC = 0x52524D50;
+
+    /**
+     * The version of the format written by this class.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    /**
+     * The size of one vehicle entry in bytes.
+     */
+    private static final int VEHICLE_BYTES = 2 + 2 * Integer.BYTES;
+
+    /**
+     * The bits holding one square's terrain.
+     */
+    private static final int NIBBLE = 0xF;
+
+    /**
+     * The size of the buffer used to write a map.
+     */
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The terrains, indexed by ordinal.
+     */
+    private static final Terrain[] TERRAINS = Terrain.values();
+
+    /**
+     * The map contents, usually a mapped file.
+     */
+    private final ByteBuffer myBuffer;
+
+    /**
+     * The number of rows.
+     */
+    private final int myHeight;
+
+    /**
+     * The number of columns.
+     */
+    private final int myWidth;
+
+    /**
+     * The number of vehicles.
+     */
+    private final int myVehicleCount;
+
+    /**
+     * The offset of the vehicle table.
+     */
+    private final int myVehicleOffset;
+
+    /**
+     * Creates a map over map contents whose header has been checked.
+     *
+     * @param theBuffer the map contents
+     * @param theHeight the number of rows
+     * @param theWidth the number of columns
+     * @param theVehicleCount the number of vehicles
+     */
+    private BinaryMap(final ByteBuffer theBuffer, final int theHeight,
+                      final int theWidth, final int theVehicleCount) {
+        myBuffer = theBuffer;
+        myHeight = theHeight;
+        myWidth = theWidth;
+        myVehicleCount = theVehicleCount;
+        myVehicleOffset = HEADER_BYTES + (int) terrainBytes(theHeight, theWidth);
+    }
+
+    /**
+     * Memory-maps a binary map file and checks its header.
+     *
+     * @param thePath the binary map file
+     * @return the map
+     * @throws IOException if the file cannot be read or is not a valid binary map
+     */
+    public static BinaryMap open(final Path thePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(thePath, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Binary map file " + thePath + " is too short");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary map file " + thePath + " is too large: "
+                                      + size + " bytes");
+            }
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), 
+                        thePath.toString());
+        }
+    }
+
+    /**
+     * Reads a binary map already in memory and checks its header.
+     *
+     * @param theBuffer the map contents, the whole buffer from index 0 to its limit
+     * @param theSource where the map came from, for error messages
+     * @return the map
+     * @throws IOException if the contents are not a valid binary map
+     */
+    static BinaryMap wrap(final ByteBuffer theBuffer, final String theSource)
+        throws IOException {
+        final long size = theBuffer.limit();
+        if (size < HEADER_BYTES || !isBinaryMap(theBuffer)) {
+            throw new IOException(theSource + " is not a binary map file");
+        }
+        if (theBuffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Binary map file " + theSource + " has unknown version "
+                                  + theBuffer.getInt(Integer.BYTES));
+        }
+        final int height = theBuffer.getInt(2 * Integer.BYTES);
+        final int width = theBuffer.getInt(3 * Integer.BYTES);
+        final int vehicles = theBuffer.getInt(4 * Integer.BYTES);
+        if (height < 0 || width < 0 || vehicles < 0
+            || HEADER_BYTES + terrainBytes(height, width)
+               + (long) vehicles * VEHICLE_BYTES != size) {
+            throw new IOException("Binary map file " + theSource + " does not match its "
+                                  + "header: " + height + " x " + width + " with "
+                                  + vehicles + " vehicles in " + size + " bytes");
+        }
+        return new BinaryMap(theBuffer, height, width, vehicles);
+    }
+
+    /**
+     * Tests whether map contents start like a binary map.
+     *
+     * @param theBuffer the map contents, starting at index 0
+     * @return true if the contents start with the binary map magic number
+     */
+    static boolean isBinaryMap(final ByteBuffer theBuffer) {
+        return theBuffer.limit() >= Integer.BYTES && theBuffer.getInt(0) == MAGIC;
+    }
+
+    /**
+     * Tests whether a file starts like a binary map.
+     *
+     * @param thePath the file
+     * @return true if the file starts with the binary map magic number
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinaryMap(final Path thePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(thePath, StandardOpenOption.READ)) {
+            final ByteBuffer start = ByteBuffer.allocate(Integer.BYTES);
+            while (start.hasRemaining() && channel.read(start) >= 0) {
+                // keep reading until the magic number is in
+            }
+            return !start.hasRemaining() && start.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Converts a city text file to a binary map file.
+     *
+     * @param theTextFile the city text file
+     * @param theBinaryFile the binary map file to write, replaced if it exists
+     * @throws IOException if either file cannot be used or the text file is not a
+     *         valid map
+     */
+    public static void convert(final Path theTextFile, final Path theBinaryFile)
+        throws IOException {
+        final CityMapReader reader = CityMapReader.open(theTextFile);
+        final Terrain[][] grid = reader.readGrid();
+        write(theBinaryFile, grid, reader.readVehicles());
+    }
+
+    /**
+     * Writes a grid and its vehicles as a binary map file.
+     *
+     * @param thePath the binary map file to write, replaced if it exists
+     * @param theGrid the terrain grid; every row must be the same length
+     * @param theVehicles the vehicles
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if a vehicle has no letter in the text format
+     */
+    public static void write(final Path thePath, final Terrain[][] theGrid,
+                             final List<? extends Vehicle> theVehicles) throws IOException {
+        final int height = theGrid.length;
+        final int width;
+        if (height == 0) {
+            width = 0;
+        } else {
+            width = theGrid[0].length;
+        }
+        try (FileChannel channel = FileChannel.open(thePath, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(height).putInt(width)
+                  .putInt(theVehicles.size());
+
+            int pending = -1;
+            for (final Terrain[] row : theGrid) {
+                for (final Terrain terrain : row) {
+                    if (pending < 0) {
+                        pending = terrain.ordinal();
+                    } else {
+                        putByte(channel, buffer, pending | terrain.ordinal() << 4);
+                        pending = -1;
+                    }
+                }
+            }
+            if (pending >= 0) {
+                putByte(channel, buffer, pending);
+            }
+
+            for (final Vehicle v : theVehicles) {
+                if (buffer.remaining() < VEHICLE_BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.put((byte) FileLoader.vehicleLetter(v))
+                      .put((byte) v.getDirection().letter())
+                      .putInt(v.getX()).putInt(v.getY());
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the width of the map in squares
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the height of the map in squares
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Returns the number of vehicles.
+     *
+     * @return the number of vehicles
+     */
+    public int getVehicleCount() {
+        return myVehicleCount;
+    }
+
+    /**
+     * Returns the terrain of one square, read straight from the mapped file.
+     *
+     * @param theX the column
+     * @param theY the row
+     * @return the terrain
+     * @throws IndexOutOfBoundsException if the square is not on the map
+     */
+    public Terrain getTerrain(final int theX, final int theY) {
+        if (theX < 0 || theY < 0 || theX >= myWidth || theY >= myHeight) {
+            throw new IndexOutOfBoundsException("(" + theX + ", " + theY + ") is not on the "
+                                                + myHeight + " x " + myWidth + " map");
+        }
+        final long square = (long) theY * myWidth + theX;
+        final int b = myBuffer.get(HEADER_BYTES + (int) (square >> 1));
+        return terrain((int) (square & 1) == 0 ? b & NIBBLE : b >> 4 & NIBBLE);
+    }
+
+    /**
+     * Copies the whole terrain onto the heap as a grid.
+     *
+     * @return the grid of the terrains
+     */
+    public Terrain[][] readGrid() {
+        final Terrain[][] grid = new Terrain[myHeight][myWidth];
+        int offset = HEADER_BYTES;
+        boolean low = true;
+        for (final Terrain[] row : grid) {
+            for (int column = 0; column < row.length; column++) {
+                final int b = myBuffer.get(offset);
+                if (low) {
+                    row[column] = terrain(b & NIBBLE);
+                } else {
+                    row[column] = terrain(b >> 4 & NIBBLE);
+                    offset++;
+                }
+                low = !low;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Reads the vehicle table.
+     *
+     * @return the list of Vehicles
+     */
+    public List<Vehicle> readVehicles() {
+        final List<Vehicle> vehicles = new ArrayList<>(myVehicleCount);
+        final VehicleStore store = new VehicleStore(myVehicleCount);
+        for (int i = 0; i < myVehicleCount; i++) {
+            final int offset = myVehicleOffset + i * VEHICLE_BYTES;
+            FileLoader.addVehicle(vehicles, store, (char) (myBuffer.get(offset) & 0xFF),
+                                  myBuffer.getInt(offset + 2),
+                                  myBuffer.getInt(offset + 2 + Integer.BYTES),
+                                  (char) (myBuffer.get(offset + 1) & 0xFF));
+        }
+        return vehicles;
+    }
+
+    /**
+     * Builds a RoadRage simulation from this map. The simulation needs the whole
+     * grid, so this copies the terrain onto the heap.
+     *
+     * @return the simulation
+     */
+    public RoadRage toRoadRage() {
+        return new RoadRage(readGrid(), readVehicles());
+    }
+
+    /**
+     * Returns the number of bytes holding the terrain of a map.
+     *
+     * @param theHeight the number of rows
+     * @param theWidth the number of columns
+     * @return the size of the terrain section
+     */
+    private static long terrainBytes(final int theHeight, final int theWidth) {
+        return ((long) theHeight * theWidth + 1) / 2;
+    }
+
+    /**
+     * Returns the terrain with an ordinal, or GRASS for an unknown ordinal, the same
+     * fallback as the text format.
+     *
+     * @param theOrdinal the ordinal
+     * @return the terrain
+     */
+    private static Terrain terrain(final int theOrdinal) {
+        final Terrain result;
+        if (theOrdinal < TERRAINS.length) {
+            result = TERRAINS[theOrdinal];
+        } else {
+            result = Terrain.GRASS;
+        }
+        return result;
+    }
+
+    /**
+     * Adds one byte to the write buffer, writing the buffer out when it is full.
+     *
+     * @param theChannel the file being written
+     * @param theBuffer the write buffer
+     * @param theByte the byte
+     * @throws IOException if the file cannot be written
+     */
+    private static void putByte(final FileChannel theChannel, final ByteBuffer theBuffer,
+                                final int theByte) throws IOException {
+        if (!theBuffer.hasRemaining()) {
+            drain(theChannel, theBuffer);
+        }
+        theBuffer.put((byte) theByte);
+    }
+
+    /**
+     * Writes out everything in the write buffer and empties it.
+     *
+     * @param theChannel the file being written
+     * @param theBuffer the write buffer
+     * @throws IOException if the file cannot be written
+     */
+    private static void drain(final FileChannel theChannel, final ByteBuffer theBuffer)
+        throws IOException {
+        theBuffer.flip();
+        while (theBuffer.hasRemaining()) {
+            theChannel.write(theBuffer);
+        }
+        theBuffer.clear();
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.io;
+
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Terrain;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates city maps of any size in the text format read by FileLoader, for load
+ * and scaling tests. The same size, block size, vehicle mix and seed always give
+ * exactly the same map.
+ *
+ * <p>The map is walled in and divided into square blocks of GRASS by a grid of
+ * streets with a LIGHT at every intersection. Some street segments have a CROSSWALK
+ * halfway along, and some blocks have a TRAIL across the middle from one street to
+ * the next. Each vehicle starts on a random square it can drive on, facing a random
+ * direction.
+ *
+ * <p>The terrain of any square is computed from the seed and the square's block, so
+ * a map is written one row at a time and never held in memory.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 6
+ */
+public final class CityGenerator {
+
+    /**
+     * The letters of the vehicle types, in the order of myVehicleCounts.
+     */
+    private static final String VEHICLE_LETTERS = "BAHTXC";
+
+    /**
+     * The block size used when none is set.
+     */
+    private static final int DEFAULT_BLOCK_SIZE = 6;
+
+    /**
+     * The smallest block size that leaves room for grass between streets.
+     */
+    private static final int MIN_BLOCK_SIZE = 3;
+
+    /**
+     * The chance in 256 that a street segment has a crosswalk.
+     */
+    private static final int CROSSWALK_ODDS = 96;
+
+    /**
+     * The chance in 256 that a block has a trail.
+     */
+    private static final int TRAIL_ODDS = 64;
+
+    /**
+     * The largest number of random squares tried when placing one vehicle.
+     */
+    private static final int MAX_PLACEMENT_TRIES = 10_000;
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of columns.
+     */
+    private final int myWidth;
+
+    /**
+     * The number of rows.
+     */
+    private final int myHeight;
+
+    /**
+     * The seed for every random choice.
+     */
+    private final long mySeed;
+
+    /**
+     * The distance between parallel streets.
+     */
+    private int myBlockSize;
+
+    /**
+     * How many vehicles of each type to place, in the order of VEHICLE_LETTERS.
+     */
+    private final int[] myVehicleCounts;
+
+    /**
+     * Creates a generator for a map with no vehicles and the default block size.
+     *
+     * @param theWidth the number of columns, at least 3
+     * @param theHeight the number of rows, at least 3
+     * @param theSeed the seed for every random choice
+     * @throws IllegalArgumentException if the map is too small to hold a street
+     */
+    public CityGenerator(final int theWidth, final int theHeight, final long theSeed) {
+        if (theWidth < MIN_BLOCK_SIZE || theHeight < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("A map must be at least " + MIN_BLOCK_SIZE
+                                               + " x " + MIN_BLOCK_SIZE + ", not "
+                                               + theHeight + " x " + theWidth);
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        mySeed = theSeed;
+        myBlockSize = DEFAULT_BLOCK_SIZE;
+        myVehicleCounts = new int[VEHICLE_LETTERS.length()];
+    }
+
+    /**
+     * Sets the distance between parallel streets.
+     *
+     * @param theBlockSize the distance between parallel streets, at least 3
+     * @return this generator
+     * @throws IllegalArgumentException if the block size is less than 3
+     */
+    public CityGenerator setBlockSize(final int theBlockSize) {
+        if (theBlockSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be at least "
+                                               + MIN_BLOCK_SIZE + ", not " + theBlockSize);
+        }
+        myBlockSize = theBlockSize;
+        return this;
+    }
+
+    /**
+     * Sets how many vehicles of one type to place.
+     *
+     * @param theType the letter of the vehicle type in the map format: B, A, H, T, X
+     *                or C
+     * @param theCount the number of vehicles of that type
+     * @return this generator
+     * @throws IllegalArgumentException if the type is unknown or the count negative
+     */
+    public CityGenerator setVehicleCount(final char theType, final int theCount) {
+        final int type = VEHICLE_LETTERS.indexOf(theType);
+        if (type < 0) {
+            throw new IllegalArgumentException("Unknown vehicle type " + theType);
+        }
+        if (theCount < 0) {
+            throw new IllegalArgumentException("Negative vehicle count " + theCount);
+        }
+        myVehicleCounts[type] = theCount;
+        return this;
+    }
+
+    /**
+     * Returns the terrain of a square of the generated map.
+     *
+     * @param theX the column
+     * @param theY the row
+     * @return the terrain
+     */
+    public Terrain getTerrain(final int theX, final int theY) {
+        final Terrain result;
+        if (theX == 0 || theY == 0 || theX == myWidth - 1 || theY == myHeight - 1) {
+            result = Terrain.WALL;
+        } else {
+            final int column = (theX - 1) % myBlockSize;
+            final int row = (theY - 1) % myBlockSize;
+            final int blockX = (theX - 1) / myBlockSize;
+            final int blockY = (theY - 1) / myBlockSize;
+            final int middle = myBlockSize / 2;
+            if (column == 0 && row == 0) {
+                result = Terrain.LIGHT;
+            } else if (column == 0) {
+                // a north-south street; maybe a crosswalk halfway along the segment
+                result = row == middle && chance(blockX, blockY, 1, CROSSWALK_ODDS)
+                         ? Terrain.CROSSWALK : Terrain.STREET;
+            } else if (row == 0) {
+                // an east-west street
+                result = column == middle && chance(blockX, blockY, 2, CROSSWALK_ODDS)
+                         ? Terrain.CROSSWALK : Terrain.STREET;
+            } else if (chance(blockX, blockY, 3, TRAIL_ODDS)) {
+                // a trail across the middle of the block, east-west or north-south
+                final boolean eastWest = chance(blockX, blockY, 4, 128);
+                result = eastWest && row == middle || !eastWest && column == middle
+                         ? Terrain.TRAIL : Terrain.GRASS;
+            } else {
+                result = Terrain.GRASS;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the generated map to a file.
+     *
+     * @param thePath the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void write(final Path thePath) throws IOException {
+        try (Writer out = Files.newBufferedWriter(thePath, StandardCharsets.US_ASCII)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes the generated map in the text format.
+     *
+     * @param theOutput where to write the map
+     * @throws IOException if the map cannot be written
+     * @throws IllegalStateException if there is nowhere to place a vehicle
+     */
+    public void write(final Writer theOutput) throws IOException {
+        final BufferedWriter out = new BufferedWriter(theOutput);
+        out.write(myHeight + " " + myWidth);
+        out.newLine();
+        final char[] line = new char[myWidth];
+        for (int y = 0; y < myHeight; y++) {
+            for (int x = 0; x < myWidth; x++) {
+                line[x] = getTerrain(x, y).letter();
+            }
+            out.write(line);
+            out.newLine();
+        }
+
+        int total = 0;
+        for (final int count : myVehicleCounts) {
+            total += count;
+        }
+        out.write(Integer.toString(total));
+        out.newLine();
+        final SplittableRandom random = new SplittableRandom(mySeed);
+        for (int type = 0; type < myVehicleCounts.length; type++) {
+            final char letter = VEHICLE_LETTERS.charAt(type);
+            for (int i = 0; i < myVehicleCounts[type]; i++) {
+                writeVehicle(out, letter, random);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Places one vehicle on a random square it can start on and writes its line.
+     *
+     * @param theOutput where to write the vehicle
+     * @param theType the letter of the vehicle type
+     * @param theRandom the source of randomness
+     * @throws IOException if the vehicle cannot be written
+     * @throws IllegalStateException if there is nowhere to place the vehicle
+     */
+    private void writeVehicle(final BufferedWriter theOutput, final char theType,
+                              final SplittableRandom theRandom) throws IOException {
+        for (int tries = 0; tries < MAX_PLACEMENT_TRIES; tries++) {
+            final int x = theRandom.nextInt(myWidth);
+            final int y = theRandom.nextInt(myHeight);
+            final Terrain terrain = getTerrain(x, y);
+            if (canStartOn(theType, terrain)) {
+                final Direction direction = DIRECTIONS[theRandom.nextInt(DIRECTIONS.length)];
+                theOutput.write(theType + " " + x + " " + y + " " + direction.letter() + " "
+                                + terrain.letter());
+                theOutput.newLine();
+                return;
+            }
+        }
+        throw new IllegalStateException("Found nowhere to place vehicle type " + theType);
+    }
+
+    /**
+     * Tests whether a vehicle type may start on a terrain.
+     *
+     * @param theType the letter of the vehicle type
+     * @param theTerrain the terrain
+     * @return true if vehicles of that type may start there
+     */
+    private static boolean canStartOn(final char theType, final Terrain theTerrain) {
+        final boolean result;
+        switch (theType) {
+            case 'H' -> result = theTerrain == Terrain.GRASS;
+            case 'B' -> result = theTerrain == Terrain.STREET || theTerrain == Terrain.TRAIL;
+            case 'A' -> result = theTerrain != Terrain.WALL;
+            default -> result = theTerrain == Terrain.STREET;
+        }
+        return result;
+    }
+
+    /**
+     * Makes a random choice for a block that depends only on the seed, the block and
+     * which choice it is.
+     *
+     * @param theBlockX the block column
+     * @param theBlockY the block row
+     * @param theChoice which choice about the block this is
+     * @param theOdds the chance in 256 of returning true
+     * @return true with the given odds
+     */
+    private boolean chance(final int theBlockX, final int theBlockY, final int theChoice,
+                           final int theOdds) {
+        // the SplitMix64 finalizer, over the seed and the block
+        long z = mySeed + 0x9E3779B97F4A7C15L * (((long) theBlockY << 32 | theBlockX) * 8
+                                                 + theChoice);
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z & 0xFF) < theOdds;
+    }
+}
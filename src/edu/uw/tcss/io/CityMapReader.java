@@ -0,0 +1,272 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.io;
+
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses city text maps straight from a byte buffer, without a Scanner or regular
+ * expressions. Small files are read into one heap buffer and large files are
+ * memory-mapped. Builds the same RoadRage as the Scanner based parser.
+ * 
+ * <p>Cells are decoded straight into the Terrain[][] that RoadRage takes, rather
+ * than into a byte per cell. That grid costs one reference per cell, 4 bytes with
+ * compressed oops and 8 without, so a 10000 by 10000 map holds about 400 MB of
+ * grid where bytes would hold 100 MB.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 26
+ */
+final class CityMapReader {
+
+    /**
+     * Files larger than this many bytes are memory-mapped instead of read.
+     */
+    private static final long MAP_THRESHOLD = 1 << 20;
+
+    /**
+     * The Terrain for every byte value.
+     */
+    private static final Terrain[] TERRAIN_BY_BYTE = new Terrain[256];
+
+    static {
+        for (int b = 0; b < TERRAIN_BY_BYTE.length; b++) {
+            TERRAIN_BY_BYTE[b] = Terrain.valueOf((char) b);
+        }
+    }
+
+    /**
+     * The map file contents.
+     */
+    private final ByteBuffer myBuffer;
+
+    /**
+     * Where the map came from, for error messages.
+     */
+    private final String mySource;
+
+    /**
+     * Creates a reader over the contents of a map file.
+     * 
+     * @param theBuffer the map file contents
+     * @param theSource where the map came from, for error messages
+     */
+    private CityMapReader(final ByteBuffer theBuffer, final String theSource) {
+        myBuffer = theBuffer;
+        mySource = theSource;
+    }
+
+    /**
+     * Reads a city text file and builds a RoadRage simulation based on the file.
+     * 
+     * @param thePath the city text file
+     * @return the simulation based on the city text file
+     * @throws IOException if the file cannot be read or is not a valid map
+     */
+    static RoadRage read(final Path thePath) throws IOException {
+        return open(thePath).toRoadRage();
+    }
+
+    /**
+     * Opens a city text file for reading its grid and then its vehicles.
+     * 
+     * @param thePath the city text file
+     * @return a reader positioned at the start of the file
+     * @throws IOException if the file cannot be read
+     */
+    static CityMapReader open(final Path thePath) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(thePath, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Map file " + thePath + " is too large: "
+                                      + size + " bytes");
+            }
+            if (size > MAP_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the buffer is full
+                }
+                buffer.flip();
+            }
+        }
+        return new CityMapReader(buffer, thePath.toString());
+    }
+
+    /**
+     * Creates a reader over map contents already in memory.
+     * 
+     * @param theBuffer the map contents, from its position to its limit
+     * @param theSource where the map came from, for error messages
+     * @return a reader positioned at the start of the map
+     */
+    static CityMapReader wrap(final ByteBuffer theBuffer, final String theSource) {
+        return new CityMapReader(theBuffer, theSource);
+    }
+
+    /**
+     * Builds a RoadRage simulation from the rest of the map.
+     * 
+     * @return the simulation
+     * @throws IOException if the map is malformed
+     */
+    RoadRage toRoadRage() throws IOException {
+        return new RoadRage(readGrid(), readVehicles());
+    }
+
+    /**
+     * Reads the grid portion of the map file.
+     * 
+     * @return the grid of the terrains
+     * @throws IOException if the grid is malformed
+     */
+    Terrain[][] readGrid() throws IOException {
+        final int numRows = readInt();
+        final int numColumns = readInt();
+        skipLine();
+        final Terrain[][] grid = new Terrain[numRows][numColumns];
+        for (int row = 0; row < numRows; row++) {
+            final int start = myBuffer.position();
+            if (myBuffer.remaining() < numColumns) {
+                throw malformed("row " + row + " is too short");
+            }
+            final Terrain[] line = grid[row];
+            for (int column = 0; column < numColumns; column++) {
+                final int b = myBuffer.get(start + column) & 0xFF;
+                if (b == '\n' || b == '\r') {
+                    throw malformed("row " + row + " is too short");
+                }
+                line[column] = TERRAIN_BY_BYTE[b];
+            }
+            myBuffer.position(start + numColumns);
+            skipLine();
+        }
+        return grid;
+    }
+
+    /**
+     * Reads the vehicle portion of the map file.
+     * 
+     * @return the list of Vehicles
+     * @throws IOException if a vehicle line is malformed
+     */
+    List<Vehicle> readVehicles() throws IOException {
+        final int numVehicles = readInt();
+        skipLine();
+        final List<Vehicle> vehicles = new ArrayList<>(numVehicles);
+        final VehicleStore store = new VehicleStore(numVehicles);
+        for (int lineCount = 0; lineCount < numVehicles; lineCount++) {
+            final char vehicleType = readTokenStart();
+            final int vehicleX = readInt();
+            final int vehicleY = readInt();
+            final char vehicleDirection = readTokenStart();
+
+            FileLoader.addVehicle(vehicles, store, vehicleType, vehicleX, vehicleY, 
+                                  vehicleDirection);
+            skipLine();
+        }
+        return vehicles;
+    }
+
+    /**
+     * Skips whitespace, then reads a decimal integer.
+     * 
+     * @return the integer
+     * @throws IOException if there is no integer
+     */
+    private int readInt() throws IOException {
+        skipWhitespace();
+        boolean negative = false;
+        if (myBuffer.hasRemaining() && myBuffer.get(myBuffer.position()) == '-') {
+            negative = true;
+            myBuffer.get();
+        }
+        if (!myBuffer.hasRemaining() || !isDigit(myBuffer.get(myBuffer.position()))) {
+            throw malformed("expected a number");
+        }
+        long value = 0;
+        while (myBuffer.hasRemaining() && isDigit(myBuffer.get(myBuffer.position()))) {
+            value = value * 10 + myBuffer.get() - '0';
+            if (value > Integer.MAX_VALUE) {
+                throw malformed("number out of range");
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Skips whitespace, then reads a token and returns its first character.
+     * 
+     * @return the first character of the token
+     * @throws IOException if there is no token
+     */
+    private char readTokenStart() throws IOException {
+        skipWhitespace();
+        if (!myBuffer.hasRemaining()) {
+            throw malformed("unexpected end of file");
+        }
+        final char result = (char) (myBuffer.get() & 0xFF);
+        while (myBuffer.hasRemaining() && !isWhitespace(myBuffer.get(myBuffer.position()))) {
+            myBuffer.get();
+        }
+        return result;
+    }
+
+    /**
+     * Skips to the start of the next line.
+     */
+    private void skipLine() {
+        while (myBuffer.hasRemaining() && myBuffer.get() != '\n') {
+            // skip the rest of the line
+        }
+    }
+
+    /**
+     * Skips spaces, tabs and line breaks.
+     */
+    private void skipWhitespace() {
+        while (myBuffer.hasRemaining() && isWhitespace(myBuffer.get(myBuffer.position()))) {
+            myBuffer.get();
+        }
+    }
+
+    /**
+     * Creates the exception for a malformed map file.
+     * 
+     * @param theProblem what is wrong with the file
+     * @return the exception
+     */
+    private IOException malformed(final String theProblem) {
+        return new IOException("Malformed map file " + mySource + " at byte "
+                               + myBuffer.position() + ": " + theProblem);
+    }
+
+    /*
+        Tests whether a byte is an ASCII digit
+     */
+    private static boolean isDigit(final byte theByte) {
+        return theByte >= '0' && theByte <= '9';
+    }
+
+    /*
+        Tests whether a byte is ASCII whitespace
+     */
+    private static boolean isWhitespace(final byte theByte) {
+        return theByte == ' ' || theByte == '\t' || theByte == '\n' || theByte == '\r'
+            || theByte == '\f';
+    }
+}
@@ -14,13 +14,25 @@ import edu.uw.tcss.model.Taxi;
 import edu.uw.tcss.model.Terrain;
 import edu.uw.tcss.model.Truck;
 import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import javax.swing.JFrame;
-import javax.swing.JOptionPane;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 
@@ -35,7 +47,7 @@ import javax.swing.JOptionPane;
 public final class FileLoader {
 
     /**
-     * The filename of the city map.
+     * The filename of the default city map.
      */
     private static final String CITY_FILE = 
                     "maps" 
@@ -50,25 +62,188 @@ public final class FileLoader {
     }
     
     /**
-     * Read the city text file and build an RoadRagePanel based on the file. 
-     * @param theFrame the Frame containing the panel. Needed for error output. 
-     * @return the RoadRagePanel based on the city text file. 
+     * Read a city text or binary file and build a RoadRage simulation based on the 
+     * file. Binary maps are recognized by their header, whatever the file is named.
+     * Does not use Swing, so it is safe to call without a display.
+     * 
+     * @param theFile the city map file
+     * @return the simulation based on the city map file
+     * @throws IOException if the file cannot be read or is not a valid map
+     */
+    public static PropertyChangeEnabledRoadRageControls readCity(final File theFile)
+        throws IOException {
+        return readCity(theFile.toPath());
+    }
+
+    /**
+     * Read a city text or binary file and build a RoadRage simulation based on the 
+     * file. Binary maps are recognized by their header, whatever the file is named.
+     * 
+     * @param thePath the city map file
+     * @return the simulation based on the city map file
+     * @throws IOException if the file cannot be read or is not a valid map
+     */
+    public static PropertyChangeEnabledRoadRageControls readCity(final Path thePath)
+        throws IOException {
+        final MapLoadEvent event = new MapLoadEvent();
+        event.begin();
+        final boolean binary = BinaryMap.isBinaryMap(thePath);
+        final PropertyChangeEnabledRoadRageControls result;
+        if (binary) {
+            result = BinaryMap.open(thePath).toRoadRage();
+        } else {
+            result = CityMapReader.read(thePath);
+        }
+        event.finish(thePath.toString(), binary, result);
+        return result;
+    }
+
+    /**
+     * Read a city text or binary map from a stream and build a RoadRage simulation 
+     * based on it. The whole stream is read; it is not closed.
+     * 
+     * @param theInput the city map contents
+     * @param theSource where the map came from, for error messages
+     * @return the simulation based on the city map
+     * @throws IOException if the stream cannot be read or is not a valid map
+     */
+    public static PropertyChangeEnabledRoadRageControls readCity(final InputStream theInput,
+                                                                 final String theSource)
+        throws IOException {
+        final MapLoadEvent event = new MapLoadEvent();
+        event.begin();
+        final ByteBuffer buffer = ByteBuffer.wrap(theInput.readAllBytes());
+        final boolean binary = BinaryMap.isBinaryMap(buffer);
+        final PropertyChangeEnabledRoadRageControls result;
+        if (binary) {
+            result = BinaryMap.wrap(buffer, theSource).toRoadRage();
+        } else {
+            result = CityMapReader.wrap(buffer, theSource).toRoadRage();
+        }
+        event.finish(theSource, binary, result);
+        return result;
+    }
+
+    /**
+     * Read a city text or binary map from the class path and build a RoadRage 
+     * simulation based on it.
+     * 
+     * @param theName the resource name, relative to the root of the class path
+     * @return the simulation based on the city map
+     * @throws IOException if there is no such resource or it is not a valid map
+     */
+    public static PropertyChangeEnabledRoadRageControls readCityResource(
+        final String theName) throws IOException {
+        final ClassLoader loader = FileLoader.class.getClassLoader();
+        try (InputStream input = loader.getResourceAsStream(theName)) {
+            if (input == null) {
+                throw new IOException("City map resource " + theName + " not found");
+            }
+            return readCity(input, theName);
+        }
+    }
+
+    /**
+     * Read every city map in a directory in parallel, one map per task, on a thread
+     * pool with a thread per processor. Maps are the regular files named *.txt or 
+     * *.rrmap; subdirectories are not searched.
+     * 
+     * @param theDirectory the directory of city maps
+     * @return the simulation for each map file, in file name order
+     * @throws IOException if the directory cannot be listed or any map cannot be 
+     *         read; the first failure is thrown with the others suppressed
+     */
+    public static SortedMap<Path, PropertyChangeEnabledRoadRageControls> readCities(
+        final Path theDirectory) throws IOException {
+        final ExecutorService pool =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return readCities(theDirectory, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Read every city map in a directory in parallel, one map per task, on the given
+     * executor. Maps are the regular files named *.txt or *.rrmap; subdirectories 
+     * are not searched. The executor is not shut down.
+     * 
+     * @param theDirectory the directory of city maps
+     * @param theExecutor runs the parsing tasks
+     * @return the simulation for each map file, in file name order
+     * @throws IOException if the directory cannot be listed or any map cannot be 
+     *         read; the first failure is thrown with the others suppressed
+     */
+    public static SortedMap<Path, PropertyChangeEnabledRoadRageControls> readCities(
+        final Path theDirectory, final ExecutorService theExecutor) throws IOException {
+        final SortedMap<Path, Future<PropertyChangeEnabledRoadRageControls>> tasks =
+            new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(theDirectory, 
+                                                                    "*.{txt,rrmap}")) {
+            for (final Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    tasks.put(file, theExecutor.submit(() -> readCity(file)));
+                }
+            }
+        }
+
+        final SortedMap<Path, PropertyChangeEnabledRoadRageControls> result = 
+            new TreeMap<>();
+        IOException failure = null;
+        for (final Map.Entry<Path, Future<PropertyChangeEnabledRoadRageControls>> task 
+             : tasks.entrySet()) {
+            try {
+                result.put(task.getKey(), task.getValue().get());
+            } catch (final ExecutionException ee) {
+                final IOException cause = ee.getCause() instanceof IOException ioe 
+                    ? ioe 
+                    : new IOException("Could not read city map file " + task.getKey(), 
+                                      ee.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                tasks.values().forEach(future -> future.cancel(true));
+                throw new InterruptedIOException("Interrupted reading " + theDirectory);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+    
+    /**
+     * Read a city text file with a Scanner and build a RoadRage simulation based on 
+     * the file. This is the original, slower parser, kept as a reference for 
+     * {@link #readCity(File)}.
+     * 
+     * @param theFile the city text file
+     * @return the simulation based on the city text file
+     * @throws IOException if the file cannot be read
      */
-    public static PropertyChangeEnabledRoadRageControls readCity(final JFrame theFrame) {
-        PropertyChangeEnabledRoadRageControls result = null;
-        try (Scanner input = new Scanner(new File(CITY_FILE))) {
+    public static PropertyChangeEnabledRoadRageControls readCityWithScanner(
+        final File theFile) throws IOException {
+        try (Scanner input = new Scanner(theFile)) {
 
             // First, we read the map description
             // Then, we read where the initial vehicles are
            
-            result = new RoadRage(readGrid(input), readVehicles(input));
-
-        } catch (final IOException ioe) {
-            JOptionPane.showMessageDialog(theFrame, "Could not read city map file " + CITY_FILE
-                                          + ":\n\n" + ioe.getMessage(), "I/O Error",
-                                      JOptionPane.ERROR_MESSAGE);
+            return new RoadRage(readGrid(input), readVehicles(input));
         }
-        return result;
+    }
+    
+    /**
+     * Returns the filename of the default city map.
+     * 
+     * @return the filename of the default city map
+     */
+    public static String getDefaultCityFile() {
+        return CITY_FILE;
     }
     
     
@@ -98,10 +273,10 @@ public final class FileLoader {
      * @param theInput The input scanner.
      * @return the list of Vehicles
      */
-    @SuppressWarnings("OverlyLongMethod")
     private static List<Vehicle> readVehicles(final Scanner theInput) {
         final List<Vehicle> vehicles = new ArrayList<>();
         final int numVehicles = theInput.nextInt();
+        final VehicleStore store = new VehicleStore(Math.max(0, numVehicles));
         theInput.nextLine();
         for (int lineCount = 0; lineCount < numVehicles; lineCount++) {
             final char vehicleType = theInput.next().charAt(0);
@@ -109,45 +284,93 @@ public final class FileLoader {
             final int vehicleY = theInput.nextInt();
             final char vehicleDirection = theInput.next().charAt(0);
 
-            switch (vehicleType) {
-                case 'B': // Bicycle
-                    vehicles.add(new Bicycle(vehicleX, vehicleY,
-                                               Direction.valueOf(vehicleDirection)));
-                    break;
-
-                case 'A': //ATV
-                    vehicles.add(new Atv(vehicleX, vehicleY,
-                                           Direction.valueOf(vehicleDirection)));
-                    break;
-
-                case 'H': // Human
-                    vehicles.add(new Human(vehicleX, vehicleY,
-                                             Direction.valueOf(vehicleDirection)));
-                    break;
-
-                case 'T': // Truck
-                    vehicles.add(new Truck(vehicleX, vehicleY,
-                                             Direction.valueOf(vehicleDirection)));
-                    break;
-                    
-                case 'X': // Taxi
-                    vehicles.add(new Taxi(vehicleX, vehicleY,
-                                            Direction.valueOf(vehicleDirection)));
-                    break;
-                    
-                case 'C': // Car
-                    vehicles.add(new Car(vehicleX, vehicleY,
-                                            Direction.valueOf(vehicleDirection)));
-                    break;
-
-                default:
-                    // this should never happen
-                    assert false;
-                    break;
-            }
+            addVehicle(vehicles, store, vehicleType, vehicleX, vehicleY, vehicleDirection);
             theInput.nextLine();
         }
         return vehicles;
     }
+
+    /**
+     * Creates a vehicle from one line of the vehicle portion of a map file and adds
+     * it to the list. The vehicle's state goes into a new slot of the given store, 
+     * so every vehicle of a map shares one store from the start.
+     * 
+     * @param theVehicles the list of Vehicles
+     * @param theStore the store the map's vehicles are created in
+     * @param theType the letter for the type of vehicle
+     * @param theX the starting x-coordinate
+     * @param theY the starting y-coordinate
+     * @param theDirection the letter for the starting direction
+     */
+    @SuppressWarnings("OverlyLongMethod")
+    static void addVehicle(final List<Vehicle> theVehicles, final VehicleStore theStore,
+                           final char theType, final int theX, final int theY,
+                           final char theDirection) {
+        switch (theType) {
+            case 'B': // Bicycle
+                theVehicles.add(new Bicycle(theStore, theX, theY,
+                                            Direction.valueOf(theDirection)));
+                break;
+
+            case 'A': //ATV
+                theVehicles.add(new Atv(theStore, theX, theY,
+                                        Direction.valueOf(theDirection)));
+                break;
+
+            case 'H': // Human
+                theVehicles.add(new Human(theStore, theX, theY,
+                                          Direction.valueOf(theDirection)));
+                break;
+
+            case 'T': // Truck
+                theVehicles.add(new Truck(theStore, theX, theY,
+                                          Direction.valueOf(theDirection)));
+                break;
+                
+            case 'X': // Taxi
+                theVehicles.add(new Taxi(theStore, theX, theY,
+                                         Direction.valueOf(theDirection)));
+                break;
+                
+            case 'C': // Car
+                theVehicles.add(new Car(theStore, theX, theY,
+                                        Direction.valueOf(theDirection)));
+                break;
+
+            default:
+                // this should never happen
+                assert false;
+                break;
+        }
+    }
+
+    /**
+     * Returns the map file letter for the type of a vehicle; the reverse of 
+     * {@link #addVehicle(List, VehicleStore, char, int, int, char)}.
+     * 
+     * @param theVehicle the vehicle
+     * @return the letter for the type of vehicle
+     * @throws IllegalArgumentException if the vehicle has no letter
+     */
+    static char vehicleLetter(final Vehicle theVehicle) {
+        final Class<?> type = theVehicle.getClass();
+        final char result;
+        if (type == Bicycle.class) {
+            result = 'B';
+        } else if (type == Atv.class) {
+            result = 'A';
+        } else if (type == Human.class) {
+            result = 'H';
+        } else if (type == Truck.class) {
+            result = 'T';
+        } else if (type == Taxi.class) {
+            result = 'X';
+        } else if (type == Car.class) {
+            result = 'C';
+        } else {
+            throw new IllegalArgumentException("No map letter for " + type.getName());
+        }
+        return result;
+    }
     
 }
@@ -0,0 +1,78 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.io;
+
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.RoadRage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning the load of one city map by FileLoader.
+ * Only loads that succeed are recorded.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+@Name("edu.uw.tcss.MapLoad")
+@Label("Road Rage Map Load")
+@Category({"Road Rage", "I/O"})
+@Description("A city map read into a simulation")
+final class MapLoadEvent extends Event {
+
+    /**
+     * Where the map came from.
+     */
+    @Label("Source")
+    String source;
+
+    /**
+     * Whether the map was binary rather than text.
+     */
+    @Label("Binary")
+    boolean binary;
+
+    /**
+     * The width of the grid.
+     */
+    @Label("Width")
+    int width;
+
+    /**
+     * The height of the grid.
+     */
+    @Label("Height")
+    int height;
+
+    /**
+     * The number of vehicles on the map.
+     */
+    @Label("Vehicles")
+    int vehicleCount;
+
+    /**
+     * Ends the event and records it, if it is enabled.
+     *
+     * @param theSource where the map came from
+     * @param theBinary whether the map was binary
+     * @param theMap the simulation the map was read into
+     */
+    void finish(final String theSource, final boolean theBinary,
+                final PropertyChangeEnabledRoadRageControls theMap) {
+        if (shouldCommit()) {
+            source = theSource;
+            binary = theBinary;
+            width = theMap.getWidth();
+            height = theMap.getHeight();
+            if (theMap instanceof RoadRage roadRage) {
+                vehicleCount = roadRage.getVehicleStore().size();
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Delivers property change events to another listener on an executor, so a slow
+ * listener never holds up the thread that fires the events, such as the tick loop
+ * of RoadRage. Register the AsyncListener in place of the slow listener:
+ *
+ * <pre>
+ * roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+ *     new AsyncListener(exporter, executor, 64, OverflowPolicy.COALESCE_LATEST));
+ * </pre>
+ *
+ * <p>Events wait in a bounded queue. Whenever the queue goes from empty to not
+ * empty, one task is given to the executor; that task delivers everything queued
+ * in batches until the queue is empty again. The listener therefore gets its events
+ * one at a time, in order, even on an executor with many threads, and an executor
+ * may be shared by many AsyncListeners. When the queue is full, the overflow policy
+ * decides which event is dropped; firing an event never waits.
+ *
+ * <p>Exceptions thrown by the listener go to the uncaught exception handler of the
+ * delivering thread, and delivery goes on. If the executor rejects the task, the
+ * queued events are dropped.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public final class AsyncListener implements PropertyChangeListener {
+
+    /**
+     * The listener events are delivered to.
+     */
+    private final PropertyChangeListener myListener;
+
+    /**
+     * Runs the delivery task.
+     */
+    private final Executor myExecutor;
+
+    /**
+     * The most events waiting to be delivered.
+     */
+    private final int myCapacity;
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    private final OverflowPolicy myPolicy;
+
+    /**
+     * The events waiting to be delivered, by key: a property name when coalescing,
+     * otherwise a sequence number. Guarded by this listener's lock.
+     */
+    private final Map<Object, PropertyChangeEvent> myQueue;
+
+    /**
+     * The number of events queued so far; the key of each event when not coalescing.
+     */
+    private long mySequence;
+
+    /**
+     * The number of events dropped or coalesced away.
+     */
+    private long myDropped;
+
+    /**
+     * Whether a delivery task has been given to the executor and not finished.
+     */
+    private boolean myScheduled;
+
+    /**
+     * Creates a listener that delivers events to another on an executor.
+     *
+     * @param theListener the listener to deliver events to
+     * @param theExecutor runs the delivery
+     * @param theCapacity the most events waiting to be delivered, at least 1
+     * @param thePolicy what to do with an event when the queue is full
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public AsyncListener(final PropertyChangeListener theListener, final Executor theExecutor,
+                         final int theCapacity, final OverflowPolicy thePolicy) {
+        if (theCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, not "
+                                               + theCapacity);
+        }
+        myListener = Objects.requireNonNull(theListener);
+        myExecutor = Objects.requireNonNull(theExecutor);
+        myCapacity = theCapacity;
+        myPolicy = Objects.requireNonNull(thePolicy);
+        myQueue = new LinkedHashMap<>();
+    }
+
+    /**
+     * Queues an event to be delivered, dropping one if the queue is full, and starts
+     * a delivery task if none is running.
+     *
+     * @param theEvent the event
+     */
+    @Override
+    public void propertyChange(final PropertyChangeEvent theEvent) {
+        final boolean start;
+        synchronized (this) {
+            mySequence++;
+            final Object key;
+            if (myPolicy == OverflowPolicy.COALESCE_LATEST) {
+                key = String.valueOf(theEvent.getPropertyName());
+            } else {
+                key = mySequence;
+            }
+            if (myQueue.replace(key, theEvent) != null) {
+                myDropped++;
+            } else {
+                if (myQueue.size() == myCapacity) {
+                    final Iterator<PropertyChangeEvent> oldest = myQueue.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    myDropped++;
+                }
+                myQueue.put(key, theEvent);
+            }
+            start = !myScheduled;
+            myScheduled = true;
+        }
+        if (start) {
+            try {
+                myExecutor.execute(this::deliver);
+            } catch (final RejectedExecutionException ree) {
+                synchronized (this) {
+                    myDropped += myQueue.size();
+                    myQueue.clear();
+                    myScheduled = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events dropped or coalesced away because the listener
+     * fell behind.
+     *
+     * @return the number of events never delivered
+     */
+    public synchronized long getDroppedCount() {
+        return myDropped;
+    }
+
+    /**
+     * Returns the listener events are delivered to.
+     *
+     * @return the listener
+     */
+    public PropertyChangeListener getListener() {
+        return myListener;
+    }
+
+    /**
+     * Delivers queued events in batches until the queue is empty; the delivery task.
+     */
+    private void deliver() {
+        List<PropertyChangeEvent> batch = takeBatch();
+        while (!batch.isEmpty()) {
+            for (final PropertyChangeEvent event : batch) {
+                try {
+                    myListener.propertyChange(event);
+                } catch (final RuntimeException re) {
+                    final Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, re);
+                }
+            }
+            batch = takeBatch();
+        }
+    }
+
+    /**
+     * Takes every queued event, or ends the delivery task if there are none.
+     *
+     * @return the events, oldest first; empty if the delivery task should end
+     */
+    private synchronized List<PropertyChangeEvent> takeBatch() {
+        final List<PropertyChangeEvent> result = new ArrayList<>(myQueue.values());
+        myQueue.clear();
+        if (result.isEmpty()) {
+            myScheduled = false;
+        }
+        return result;
+    }
+}
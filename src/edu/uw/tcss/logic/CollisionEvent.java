@@ -0,0 +1,100 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.Vehicle;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one pair of vehicles told they have collided.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+@Name("edu.uw.tcss.Collision")
+@Label("Road Rage Collision")
+@Category({"Road Rage", "Simulation"})
+@Description("A pair of vehicles found on the same square")
+@StackTrace(false)
+final class CollisionEvent extends Event {
+
+    /**
+     * The time step of the tick the collision happened in.
+     */
+    @Label("Time Step")
+    long timestep;
+
+    /**
+     * The column of the square.
+     */
+    @Label("X")
+    int x;
+
+    /**
+     * The row of the square.
+     */
+    @Label("Y")
+    int y;
+
+    /**
+     * The class of the first vehicle.
+     */
+    @Label("First Vehicle")
+    String first;
+
+    /**
+     * The class of the second vehicle.
+     */
+    @Label("Second Vehicle")
+    String second;
+
+    /**
+     * The number of the two vehicles that died.
+     */
+    @Label("Deaths")
+    int deaths;
+
+    /**
+     * Tells two vehicles on the same square that they have collided, recording the
+     * collision if this event is enabled.
+     *
+     * @param theFirst the first vehicle
+     * @param theSecond the second vehicle
+     * @param theTimestep the time step of the current tick
+     */
+    static void collide(final Vehicle theFirst, final Vehicle theSecond,
+                        final long theTimestep) {
+        final CollisionEvent event = new CollisionEvent();
+        event.begin();
+        final int aliveBefore = alive(theFirst, theSecond);
+        theFirst.collide(theSecond);
+        theSecond.collide(theFirst);
+        if (event.shouldCommit()) {
+            event.timestep = theTimestep;
+            event.x = theFirst.getX();
+            event.y = theFirst.getY();
+            event.first = theFirst.getClass().getSimpleName();
+            event.second = theSecond.getClass().getSimpleName();
+            event.deaths = aliveBefore - alive(theFirst, theSecond);
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts the living vehicles of a pair.
+     *
+     * @param theFirst the first vehicle
+     * @param theSecond the second vehicle
+     * @return 0, 1 or 2
+     */
+    private static int alive(final Vehicle theFirst, final Vehicle theSecond) {
+        return (theFirst.isAlive() ? 1 : 0) + (theSecond.isAlive() ? 1 : 0);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.VehicleStore;
+import java.util.Arrays;
+
+/**
+ * Buckets vehicles by the square they occupy so that collisions can be found
+ * without comparing every pair of vehicles. Each bucket is an intrusive linked
+ * list of vehicle indexes kept in list order, so collisions are reported in the
+ * same order as the all-pairs loop would report them. Positions are read from the
+ * simulation's vehicle store.
+ * 
+ * <p>Vehicles that wander off the grid share one overflow bucket and are compared
+ * by their exact coordinates.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 16
+ */
+final class CollisionIndex {
+
+    /**
+     * Marks the end of a bucket.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * The state of the vehicles, in simulation order.
+     */
+    private final VehicleStore myStore;
+
+    /**
+     * The width of the grid.
+     */
+    private final int myWidth;
+
+    /**
+     * The height of the grid.
+     */
+    private final int myHeight;
+
+    /**
+     * The first vehicle index in each bucket. The last bucket is the overflow bucket.
+     */
+    private final int[] myHeads;
+
+    /**
+     * The next vehicle index in the same bucket, for each vehicle.
+     */
+    private final int[] myNext;
+
+    /**
+     * The bucket each vehicle is currently filed under.
+     */
+    private final int[] myBuckets;
+
+    /**
+     * Creates an empty index.
+     * 
+     * @param theWidth the width of the grid
+     * @param theHeight the height of the grid
+     * @param theStore the state of the vehicles in the simulation
+     */
+    CollisionIndex(final int theWidth, final int theHeight, final VehicleStore theStore) {
+        myStore = theStore;
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myHeads = new int[theWidth * theHeight + 1];
+        myNext = new int[theStore.size()];
+        myBuckets = new int[theStore.size()];
+        Arrays.fill(myHeads, EMPTY);
+        Arrays.fill(myBuckets, myHeads.length - 1);
+    }
+
+    /**
+     * Files every vehicle under the square it currently occupies.
+     */
+    void rebuild() {
+        for (final int bucket : myBuckets) {
+            myHeads[bucket] = EMPTY;
+        }
+        for (int i = 0; i < myBuckets.length; i++) {
+            myBuckets[i] = bucketOf(myStore.getX(i), myStore.getY(i));
+            myHeads[myBuckets[i]] = EMPTY;
+        }
+        for (int i = 0; i < myBuckets.length; i++) {
+            myNext[i] = EMPTY;
+            insert(i);
+        }
+    }
+
+    /**
+     * Moves a vehicle to the bucket for the square it currently occupies.
+     * 
+     * @param theIndex the index of the vehicle
+     */
+    void update(final int theIndex) {
+        final int bucket = bucketOf(myStore.getX(theIndex), myStore.getY(theIndex));
+        if (bucket != myBuckets[theIndex]) {
+            remove(theIndex);
+            myBuckets[theIndex] = bucket;
+            insert(theIndex);
+        }
+    }
+
+    /**
+     * Tells the vehicle at the given index, and every other vehicle on the same
+     * square, that they have collided.
+     * 
+     * @param theIndex the index of the vehicle
+     * @param thePair tells two vehicles they have collided
+     * @return the number of colliding pairs found
+     */
+    int collide(final int theIndex, final Pair thePair) {
+        int result = 0;
+        final int x = myStore.getX(theIndex);
+        final int y = myStore.getY(theIndex);
+        for (int j = myHeads[myBuckets[theIndex]]; j != EMPTY; j = myNext[j]) {
+            if (j == theIndex) {
+                // don't collide with self
+                continue;
+            }
+            if (x == myStore.getX(j) && y == myStore.getY(j)) { //NOPMD
+                thePair.collide(theIndex, j);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tells the vehicle at the given index, and every later vehicle on the same
+     * square, that they have collided. Calling this for every index reports each
+     * pair of vehicles exactly once.
+     * 
+     * @param theIndex the index of the vehicle
+     * @param thePair tells two vehicles they have collided
+     * @return the number of colliding pairs found
+     */
+    int collideWithLater(final int theIndex, final Pair thePair) {
+        int result = 0;
+        final int x = myStore.getX(theIndex);
+        final int y = myStore.getY(theIndex);
+        for (int j = myNext[theIndex]; j != EMPTY; j = myNext[j]) {
+            if (x == myStore.getX(j) && y == myStore.getY(j)) { //NOPMD
+                thePair.collide(theIndex, j);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the bucket for a square.
+     * 
+     * @param theX the x position
+     * @param theY the y position
+     * @return the bucket for the square
+     */
+    private int bucketOf(final int theX, final int theY) {
+        final int result;
+        if (theX >= 0 && theX < myWidth && theY >= 0 && theY < myHeight) {
+            result = theY * myWidth + theX;
+        } else {
+            result = myHeads.length - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Links a vehicle into its bucket, keeping the bucket sorted by index.
+     * 
+     * @param theIndex the index of the vehicle
+     */
+    private void insert(final int theIndex) {
+        final int bucket = myBuckets[theIndex];
+        int previous = EMPTY;
+        int current = myHeads[bucket];
+        while (current != EMPTY && current < theIndex) {
+            previous = current;
+            current = myNext[current];
+        }
+        myNext[theIndex] = current;
+        if (previous == EMPTY) {
+            myHeads[bucket] = theIndex;
+        } else {
+            myNext[previous] = theIndex;
+        }
+    }
+
+    /**
+     * Unlinks a vehicle from its bucket.
+     * 
+     * @param theIndex the index of the vehicle
+     */
+    private void remove(final int theIndex) {
+        final int bucket = myBuckets[theIndex];
+        if (myHeads[bucket] == theIndex) {
+            myHeads[bucket] = myNext[theIndex];
+        } else {
+            int current = myHeads[bucket];
+            while (myNext[current] != theIndex) {
+                current = myNext[current];
+            }
+            myNext[current] = myNext[theIndex];
+        }
+        myNext[theIndex] = EMPTY;
+    }
+
+    /**
+     * Tells two vehicles, given by index, that they have collided.
+     */
+    @FunctionalInterface
+    interface Pair {
+
+        /**
+         * Tells the vehicles at two indices that they have collided.
+         * 
+         * @param theIndex the index of the vehicle
+         * @param theOther the index of the vehicle it collided with
+         */
+        void collide(int theIndex, int theOther);
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+/**
+ * The strategies RoadRage may use to find vehicles that share a square.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 16
+ */
+public enum CollisionMode {
+
+    /**
+     * Compare every vehicle against every other vehicle, O(n^2) per tick.
+     */
+    ALL_PAIRS,
+
+    /**
+     * Bucket vehicles by the square they occupy and only compare vehicles 
+     * that share a bucket, O(n) per tick.
+     */
+    CELL_INDEX
+}
@@ -0,0 +1,93 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+/**
+ * The running totals behind MetricsSnapshot. The tick thread records one tick at a
+ * time and any thread may take a snapshot, so both hold this object's lock; the
+ * lock is taken once per tick, never per vehicle.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+final class EngineMetrics {
+
+    /**
+     * The number of ticks advanced.
+     */
+    private long myTicks;
+
+    /**
+     * The number of single-square moves.
+     */
+    private long myMoved;
+
+    /**
+     * The number of moves refused by canPass.
+     */
+    private long myBlocked;
+
+    /**
+     * The number of colliding pairs.
+     */
+    private long myCollisions;
+
+    /**
+     * The number of deaths in collisions.
+     */
+    private long myDeaths;
+
+    /**
+     * The number of revivals.
+     */
+    private long myRevivals;
+
+    /**
+     * The number of light changes.
+     */
+    private long myLightChanges;
+
+    /**
+     * The duration of each tick.
+     */
+    private final LatencyHistogram myTickNanos = new LatencyHistogram();
+
+    /**
+     * Adds one tick to the totals.
+     *
+     * @param theNanos how long the tick took
+     * @param theMoved the number of vehicles that moved
+     * @param theBlocked the number of vehicles that could not pass
+     * @param theCollisions the number of colliding pairs
+     * @param theDeaths the number of vehicles that died
+     * @param theRevivals the number of vehicles that came back to life
+     * @param theLightChanged whether the light changed
+     */
+    synchronized void recordTick(final long theNanos, final int theMoved,
+                                 final int theBlocked, final int theCollisions,
+                                 final int theDeaths, final int theRevivals,
+                                 final boolean theLightChanged) {
+        myTicks++;
+        myMoved += theMoved;
+        myBlocked += theBlocked;
+        myCollisions += theCollisions;
+        myDeaths += theDeaths;
+        myRevivals += theRevivals;
+        if (theLightChanged) {
+            myLightChanges++;
+        }
+        myTickNanos.record(theNanos);
+    }
+
+    /**
+     * Returns the totals so far.
+     *
+     * @return the snapshot
+     */
+    synchronized MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(myTicks, myMoved, myBlocked, myCollisions, myDeaths,
+                                   myRevivals, myLightChanges, myTickNanos.copy());
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets, in the style of
+ * HdrHistogram: each power of two is split into 32 equal buckets, so any recorded
+ * value is known to within about 3% however large it is, in a fixed 15 KB of
+ * counts. Recording is a few shifts and an increment, and never allocates.
+ *
+ * <p>Only the engine records values. The histograms handed out in a MetricsSnapshot
+ * are copies that never change.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of a value kept below its leading bit.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The number of buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets needed for every non-negative long.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final long[] myCounts;
+
+    /**
+     * The number of values recorded.
+     */
+    private long myCount;
+
+    /**
+     * The sum of the values recorded.
+     */
+    private long mySum;
+
+    /**
+     * The smallest value recorded, or Long.MAX_VALUE if none has been.
+     */
+    private long myMin;
+
+    /**
+     * The largest value recorded, or 0 if none has been.
+     */
+    private long myMax;
+
+    /**
+     * Creates an empty histogram.
+     */
+    LatencyHistogram() {
+        myCounts = new long[BUCKETS];
+        myMin = Long.MAX_VALUE;
+    }
+
+    /**
+     * Creates a copy of a histogram.
+     *
+     * @param theOther the histogram to copy
+     */
+    private LatencyHistogram(final LatencyHistogram theOther) {
+        myCounts = theOther.myCounts.clone();
+        myCount = theOther.myCount;
+        mySum = theOther.mySum;
+        myMin = theOther.myMin;
+        myMax = theOther.myMax;
+    }
+
+    /**
+     * Records one value; negative values are recorded as 0.
+     *
+     * @param theValue the value in nanoseconds
+     */
+    void record(final long theValue) {
+        final long value = Math.max(0, theValue);
+        myCounts[bucket(value)]++;
+        myCount++;
+        mySum += value;
+        myMin = Math.min(myMin, value);
+        myMax = Math.max(myMax, value);
+    }
+
+    /**
+     * Returns a copy of this histogram.
+     *
+     * @return the copy
+     */
+    LatencyHistogram copy() {
+        return new LatencyHistogram(this);
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return myCount;
+    }
+
+    /**
+     * Returns the sum of the values recorded.
+     *
+     * @return the sum in nanoseconds
+     */
+    public long getSum() {
+        return mySum;
+    }
+
+    /**
+     * Returns the smallest value recorded.
+     *
+     * @return the smallest value in nanoseconds, or 0 if none has been recorded
+     */
+    public long getMin() {
+        return myCount == 0 ? 0 : myMin;
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return the largest value in nanoseconds, or 0 if none has been recorded
+     */
+    public long getMax() {
+        return myMax;
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return the mean in nanoseconds, or 0 if none has been recorded
+     */
+    public double getMean() {
+        return myCount == 0 ? 0 : (double) mySum / myCount;
+    }
+
+    /**
+     * Returns the value that the given percentage of recorded values are at or
+     * below, to the precision of the buckets.
+     *
+     * @param thePercentile the percentage, from 0 to 100
+     * @return the largest value in the bucket holding that percentile, in
+     *         nanoseconds, or 0 if none has been recorded
+     * @throws IllegalArgumentException if the percentage is out of range
+     */
+    public long getValueAtPercentile(final double thePercentile) {
+        if (!(thePercentile >= 0 && thePercentile <= 100)) {
+            throw new IllegalArgumentException("Percentile out of range: " + thePercentile);
+        }
+        long result = 0;
+        if (myCount > 0) {
+            final long target = Math.max(1, (long) Math.ceil(thePercentile / 100 * myCount));
+            long seen = 0;
+            int index = 0;
+            while (seen + myCounts[index] < target) {
+                seen += myCounts[index];
+                index++;
+            }
+            result = Math.min(myMax, Math.max(myMin, highestInBucket(index)));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0f p50=%d p99=%d max=%d (ns)", myCount,
+                             getMean(), getValueAtPercentile(50),
+                             getValueAtPercentile(99), myMax);
+    }
+
+    @Override
+    public boolean equals(final Object theOther) {
+        return theOther instanceof LatencyHistogram other
+               && myCount == other.myCount && mySum == other.mySum
+               && myMin == other.myMin && myMax == other.myMax
+               && Arrays.equals(myCounts, other.myCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(myCounts);
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param theValue the value, not negative
+     * @return the bucket
+     */
+    private static int bucket(final long theValue) {
+        final int result;
+        if (theValue < SUB_BUCKETS) {
+            result = (int) theValue;
+        } else {
+            final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(theValue)
+                              - SUB_BUCKET_BITS;
+            result = (shift + 1) * SUB_BUCKETS + (int) (theValue >>> shift) - SUB_BUCKETS;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     *
+     * @param theBucket the bucket
+     * @return the largest value
+     */
+    private static long highestInBucket(final int theBucket) {
+        final long result;
+        if (theBucket < SUB_BUCKETS) {
+            result = theBucket;
+        } else {
+            final int shift = theBucket / SUB_BUCKETS - 1;
+            final long lowest = (long) (SUB_BUCKETS + theBucket % SUB_BUCKETS) << shift;
+            result = lowest + (1L << shift) - 1;
+        }
+        return result;
+    }
+}
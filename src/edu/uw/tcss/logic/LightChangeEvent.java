@@ -0,0 +1,51 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one change of the light during a tick,
+ * spanning the light listeners.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+@Name("edu.uw.tcss.LightChange")
+@Label("Road Rage Light Change")
+@Category({"Road Rage", "Simulation"})
+@Description("The light changing color")
+@StackTrace(false)
+final class LightChangeEvent extends Event {
+
+    /**
+     * The time step the light changed at.
+     */
+    @Label("Time Step")
+    long timestep;
+
+    /**
+     * The light before the change.
+     */
+    @Label("From")
+    String from;
+
+    /**
+     * The light after the change.
+     */
+    @Label("To")
+    String to;
+
+    /**
+     * The number of vehicles in the simulation.
+     */
+    @Label("Vehicles")
+    int vehicleCount;
+}
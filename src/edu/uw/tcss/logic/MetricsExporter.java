@@ -0,0 +1,277 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the engine metrics of a simulation to a local file at a fixed period, on a
+ * thread of its own, so nothing is written on the tick thread. A CSV file gets one
+ * row per period, appended; a Prometheus file is replaced each period with the
+ * latest values in the text exposition format, as a node exporter textfile
+ * collector expects.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public final class MetricsExporter implements Closeable {
+
+    /**
+     * The percentiles of tick duration written.
+     */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * The header of a CSV file.
+     */
+    private static final String CSV_HEADER = "time,ticks,vehicles_moved,vehicles_blocked,"
+        + "collisions,deaths,revivals,light_changes,tick_mean_ns,tick_p50_ns,tick_p90_ns,"
+        + "tick_p99_ns,tick_p999_ns,tick_max_ns";
+
+    /**
+     * The file formats an exporter can write.
+     */
+    public enum Format {
+
+        /**
+         * Comma-separated values, one row per period appended to the file.
+         */
+        CSV,
+
+        /**
+         * The Prometheus text exposition format, the whole file replaced each period.
+         */
+        PROMETHEUS
+    }
+
+    /**
+     * The simulation whose metrics are written.
+     */
+    private final RoadRage myRoadRage;
+
+    /**
+     * The file written.
+     */
+    private final Path myFile;
+
+    /**
+     * The format of the file.
+     */
+    private final Format myFormat;
+
+    /**
+     * Runs the periodic writes.
+     */
+    private final ScheduledExecutorService myScheduler;
+
+    /**
+     * Creates an exporter that has not started writing.
+     *
+     * @param theRoadRage the simulation whose metrics are written
+     * @param theFile the file to write
+     * @param theFormat the format of the file
+     */
+    private MetricsExporter(final RoadRage theRoadRage, final Path theFile,
+                            final Format theFormat) {
+        myRoadRage = theRoadRage;
+        myFile = theFile;
+        myFormat = theFormat;
+        myScheduler = Executors.newSingleThreadScheduledExecutor(theTask -> {
+            final Thread thread = new Thread(theTask, "road-rage-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Enables metrics on a simulation, if they are not already, and starts writing
+     * them to a file every period. A CSV file is replaced by one holding just the
+     * header before the first row.
+     *
+     * @param theRoadRage the simulation
+     * @param theFile the file to write
+     * @param theFormat the format of the file
+     * @param thePeriod the time between writes
+     * @return the exporter, which must be closed to stop writing
+     * @throws IOException if the CSV header cannot be written
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public static MetricsExporter start(final RoadRage theRoadRage, final Path theFile,
+                                        final Format theFormat, final Duration thePeriod)
+        throws IOException {
+        if (thePeriod.isNegative() || thePeriod.isZero()) {
+            throw new IllegalArgumentException("Period must be positive, not " + thePeriod);
+        }
+        if (!theRoadRage.isMetricsEnabled()) {
+            theRoadRage.setMetricsEnabled(true);
+        }
+        if (theFormat == Format.CSV) {
+            Files.writeString(theFile, CSV_HEADER + System.lineSeparator(),
+                              StandardCharsets.UTF_8);
+        }
+        final MetricsExporter result = new MetricsExporter(theRoadRage, theFile, theFormat);
+        final long period = thePeriod.toNanos();
+        result.myScheduler.scheduleAtFixedRate(result::exportQuietly, period, period,
+                                               TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Writes the current metrics once, on the calling thread.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void export() throws IOException {
+        final MetricsSnapshot metrics = myRoadRage.getMetrics();
+        if (myFormat == Format.CSV) {
+            Files.writeString(myFile, toCsv(metrics, Instant.now()), StandardCharsets.UTF_8,
+                              StandardOpenOption.APPEND);
+        } else {
+            // write beside the file and rename, so a reader never sees half of it
+            final Path temporary = myFile.resolveSibling(myFile.getFileName() + ".tmp");
+            Files.writeString(temporary, toPrometheus(metrics), StandardCharsets.UTF_8);
+            Files.move(temporary, myFile, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Stops the periodic writes, letting one already in progress finish rather than
+     * interrupting it part way through the file, and writes the metrics one last
+     * time.
+     *
+     * @throws IOException if the last write fails
+     */
+    @Override
+    public void close() throws IOException {
+        myScheduler.shutdown();
+        try {
+            myScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        export();
+    }
+
+    /**
+     * Formats metrics as one CSV row, matching CSV_HEADER.
+     *
+     * @param theMetrics the metrics
+     * @param theTime when the metrics were taken
+     * @return the row, with a line separator
+     */
+    static String toCsv(final MetricsSnapshot theMetrics, final Instant theTime) {
+        final LatencyHistogram ticks = theMetrics.tickNanos();
+        final StringBuilder result = new StringBuilder();
+        result.append(theTime).append(',').append(theMetrics.ticks())
+            .append(',').append(theMetrics.vehiclesMoved())
+            .append(',').append(theMetrics.vehiclesBlocked())
+            .append(',').append(theMetrics.collisions())
+            .append(',').append(theMetrics.deaths())
+            .append(',').append(theMetrics.revivals())
+            .append(',').append(theMetrics.lightChanges())
+            .append(',').append(Math.round(ticks.getMean()));
+        for (final double percentile : PERCENTILES) {
+            result.append(',').append(ticks.getValueAtPercentile(percentile));
+        }
+        result.append(',').append(ticks.getMax()).append(System.lineSeparator());
+        return result.toString();
+    }
+
+    /**
+     * Formats metrics in the Prometheus text exposition format.
+     *
+     * @param theMetrics the metrics
+     * @return the text
+     */
+    static String toPrometheus(final MetricsSnapshot theMetrics) {
+        final StringBuilder result = new StringBuilder();
+        counter(result, "ticks", "Ticks advanced.", theMetrics.ticks());
+        counter(result, "vehicles_moved", "Single-square vehicle moves.",
+                theMetrics.vehiclesMoved());
+        counter(result, "vehicles_blocked", "Vehicle moves refused by canPass.",
+                theMetrics.vehiclesBlocked());
+        counter(result, "collisions", "Pairs of vehicles found on the same square.",
+                theMetrics.collisions());
+        counter(result, "deaths", "Vehicles killed in collisions.", theMetrics.deaths());
+        counter(result, "revivals", "Dead vehicles revived by poke.",
+                theMetrics.revivals());
+        counter(result, "light_changes", "Light transitions.", theMetrics.lightChanges());
+
+        final LatencyHistogram ticks = theMetrics.tickNanos();
+        final String name = "road_rage_tick_duration_seconds";
+        result.append("# HELP ").append(name).append(" Duration of advance().\n");
+        result.append("# TYPE ").append(name).append(" summary\n");
+        for (final double percentile : PERCENTILES) {
+            result.append(name).append("{quantile=\"")
+                .append(BigDecimal.valueOf(percentile).movePointLeft(2)
+                        .stripTrailingZeros().toPlainString())
+                .append("\"} ")
+                .append(seconds(ticks.getValueAtPercentile(percentile))).append('\n');
+        }
+        result.append(name).append("_sum ").append(seconds(ticks.getSum())).append('\n');
+        result.append(name).append("_count ").append(ticks.getCount()).append('\n');
+        return result.toString();
+    }
+
+    /**
+     * Writes the current metrics, reporting any failure to the uncaught exception
+     * handler instead of letting it cancel every later periodic write.
+     */
+    private void exportQuietly() {
+        try {
+            export();
+        } catch (final IOException | RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(
+                thread, e instanceof IOException ioe ? new UncheckedIOException(ioe) : e);
+        }
+    }
+
+    /**
+     * Appends one Prometheus counter.
+     *
+     * @param theOutput where to append
+     * @param theName the name, without prefix or suffix
+     * @param theHelp the description
+     * @param theValue the value
+     */
+    private static void counter(final StringBuilder theOutput, final String theName,
+                                final String theHelp, final long theValue) {
+        final String name = "road_rage_" + theName + "_total";
+        theOutput.append("# HELP ").append(name).append(' ').append(theHelp).append('\n');
+        theOutput.append("# TYPE ").append(name).append(" counter\n");
+        theOutput.append(name).append(' ').append(theValue).append('\n');
+    }
+
+    /**
+     * Formats nanoseconds as seconds.
+     *
+     * @param theNanos the nanoseconds
+     * @return the seconds
+     */
+    private static String seconds(final long theNanos) {
+        return String.format(Locale.ROOT, "%.9f", theNanos / NANOS_PER_SECOND);
+    }
+}
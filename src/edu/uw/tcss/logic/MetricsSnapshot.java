@@ -0,0 +1,26 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+/**
+ * The engine metrics of a RoadRage simulation, totalled over every tick since
+ * metrics were enabled. Every count only grows, so rates come from the difference
+ * between two snapshots.
+ *
+ * @param ticks the number of ticks advanced
+ * @param vehiclesMoved the number of times a living vehicle moved one square
+ * @param vehiclesBlocked the number of times a living vehicle chose a direction but
+ *                        could not pass into it
+ * @param collisions the number of pairs of vehicles found on the same square
+ * @param deaths the number of times a vehicle died in a collision
+ * @param revivals the number of times a poked vehicle came back to life
+ * @param lightChanges the number of times the light changed
+ * @param tickNanos the duration of each advance, events included, in nanoseconds
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public record MetricsSnapshot(long ticks, long vehiclesMoved, long vehiclesBlocked,
+                              long collisions, long deaths, long revivals,
+                              long lightChanges, LatencyHistogram tickNanos) { }
@@ -0,0 +1,154 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Terrain;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A precomputed table of the neighboring terrain around every square of a grid.
+ * 
+ * <p>Each square is packed into a code with one base-7 digit per Direction: 0 when 
+ * the neighbor is off the map, otherwise the Terrain ordinal plus one. There are only
+ * 7^4 possible codes, so every neighborhood is a shared read-only map and looking one
+ * up allocates nothing.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 16
+ */
+final class NeighborTable {
+
+    /**
+     * The number of values a single digit of a code can take.
+     */
+    private static final int RADIX = Terrain.values().length + 1;
+
+    /**
+     * The directions, in digit order.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The terrains, in ordinal order.
+     */
+    private static final Terrain[] TERRAINS = Terrain.values();
+
+    /**
+     * The read-only neighbors map for every possible code.
+     */
+    private static final Map<Direction, Terrain>[] NEIGHBORHOODS = buildNeighborhoods();
+
+    /**
+     * The terrain grid.
+     */
+    private final Terrain[][] myGrid;
+
+    /**
+     * The width of the grid.
+     */
+    private final int myWidth;
+
+    /**
+     * The neighborhood code of every square, in row-major order.
+     */
+    private final short[] myCodes;
+
+    /**
+     * Builds the table for a grid.
+     * 
+     * @param theGrid the terrain grid
+     */
+    NeighborTable(final Terrain[][] theGrid) {
+        myGrid = theGrid;
+        myWidth = theGrid.length == 0 ? 0 : theGrid[0].length;
+        myCodes = new short[theGrid.length * myWidth];
+        for (int y = 0; y < theGrid.length; y++) {
+            for (int x = 0; x < myWidth; x++) {
+                myCodes[y * myWidth + x] = (short) encode(x, y);
+            }
+        }
+    }
+
+    /**
+     * Returns the read-only neighbors map for a square.
+     * 
+     * @param theX the x position
+     * @param theY the y position
+     * @return the neighbors map
+     */
+    Map<Direction, Terrain> get(final int theX, final int theY) {
+        final int code;
+        if (theY >= 0 && theY < myGrid.length && theX >= 0 && theX < myWidth) {
+            code = myCodes[theY * myWidth + theX];
+        } else {
+            // vehicles that leave the map still see the squares along its edge
+            code = encode(theX, theY);
+        }
+        return NEIGHBORHOODS[code];
+    }
+
+    /**
+     * Computes the neighborhood code for a square.
+     * 
+     * @param theX the x position
+     * @param theY the y position
+     * @return the code
+     */
+    private int encode(final int theX, final int theY) {
+        int code = 0;
+        for (int i = DIRECTIONS.length - 1; i >= 0; i--) {
+            final int y = theY + DIRECTIONS[i].dy();
+            final int x = theX + DIRECTIONS[i].dx();
+            int digit = 0;
+            if (isValidIndex(y, x)) {
+                digit = myGrid[y][x].ordinal() + 1;
+            }
+            code = code * RADIX + digit;
+        }
+        return code;
+    }
+
+    /**
+     * Tests whether the square at the given x/y position exists on the map.
+     * 
+     * @param theX The x position.
+     * @param theY The y position.
+     * @return true if the position exists on the map, false otherwise.
+     */
+    private boolean isValidIndex(final int theY, final int theX) {
+        return theY >= 0 && theY < myGrid.length
+            && theX >= 0 && theX < myGrid[theY].length;
+    }
+
+    /**
+     * Builds the read-only neighbors map for every possible code.
+     * 
+     * @return the maps, indexed by code
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Direction, Terrain>[] buildNeighborhoods() {
+        int count = 1;
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            count *= RADIX;
+        }
+        final Map<Direction, Terrain>[] result = new Map[count];
+        for (int code = 0; code < count; code++) {
+            final Map<Direction, Terrain> neighbors = new EnumMap<>(Direction.class);
+            int rest = code;
+            for (final Direction dir : DIRECTIONS) {
+                final int digit = rest % RADIX;
+                rest /= RADIX;
+                if (digit > 0) {
+                    neighbors.put(dir, TERRAINS[digit - 1]);
+                }
+            }
+            result[code] = Collections.unmodifiableMap(neighbors);
+        }
+        return result;
+    }
+}
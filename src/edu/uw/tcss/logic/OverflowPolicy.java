@@ -0,0 +1,30 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+/**
+ * What an AsyncListener does with a new event when its listener has fallen behind
+ * and its queue is full.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Drop the oldest queued event to make room. The listener sees the newest events
+     * in the order they were fired, with a gap where events were dropped.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replace the queued event for the same property, if any, keeping its place in
+     * the queue, so the listener sees only the latest value of each property. Suits
+     * listeners that want the current state, such as the latest snapshot, but not
+     * those that add up every change, such as the vehicle delta. If the queue is
+     * still full, the oldest event is dropped.
+     */
+    COALESCE_LATEST
+}
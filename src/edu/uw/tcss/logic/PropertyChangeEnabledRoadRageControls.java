@@ -5,6 +5,7 @@
 package edu.uw.tcss.logic;
 
 import java.beans.PropertyChangeListener;
+import java.util.concurrent.Executor;
 
 /**
  * Defines behaviors allowing PropertyChangeListeners to be added or removed from a 
@@ -50,6 +51,20 @@ public interface PropertyChangeEnabledRoadRageControls extends RoadRageControls
      */
     String PROPERTY_TIME = "the time step";
     
+    /**
+     * A property name for an immutable TickSnapshot of every vehicle, fired once per
+     * tick after PROPERTY_VEHICLES. Unlike the vehicle list, a snapshot never changes
+     * after it is fired, so listeners may keep it and read it on any thread.
+     */
+    String PROPERTY_SNAPSHOT = "the tick snapshot";
+    
+    /**
+     * A property name for a VehicleDelta holding only the vehicles that changed since
+     * the previous PROPERTY_SNAPSHOT, fired after each snapshot but the first. Old 
+     * value is the previous snapshot and new value is the delta.
+     */
+    String PROPERTY_VEHICLE_DELTA = "the vehicle delta";
+    
     /**
      * Add a PropertyChangeListener to the listener list. The listener is registered for 
      * all properties. The same listener object may be added more than once, and will be 
@@ -73,6 +88,32 @@ public interface PropertyChangeEnabledRoadRageControls extends RoadRageControls
      */
     void addPropertyChangeListener(String thePropertyName, PropertyChangeListener theListener);
 
+    /**
+     * Add a PropertyChangeListener for a specific property that receives its events 
+     * on an executor, not on the thread firing them, so it never slows the simulation
+     * down. When the listener falls behind, events are dropped or coalesced as the 
+     * policy says. See AsyncListener.
+     * 
+     * @param thePropertyName The name of the property to listen on.
+     * @param theListener The PropertyChangeListener to be added
+     * @param theExecutor Runs the delivery of events to the listener.
+     * @param theCapacity The most events waiting to be delivered.
+     * @param thePolicy What to do with an event when the listener has fallen behind.
+     * @return the AsyncListener added, which is what to pass to 
+     *         removePropertyChangeListener
+     */
+    default AsyncListener addAsyncPropertyChangeListener(final String thePropertyName,
+                                                         final PropertyChangeListener 
+                                                             theListener,
+                                                         final Executor theExecutor,
+                                                         final int theCapacity,
+                                                         final OverflowPolicy thePolicy) {
+        final AsyncListener result = 
+            new AsyncListener(theListener, theExecutor, theCapacity, thePolicy);
+        addPropertyChangeListener(thePropertyName, result);
+        return result;
+    }
+
     /**
      * Remove a PropertyChangeListener from the listener list. This removes a 
      * PropertyChangeListener that was registered for all properties. If listener was added 
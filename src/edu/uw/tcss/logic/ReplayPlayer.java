@@ -0,0 +1,537 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Light;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays back a replay log written by ReplayRecorder. The player fires the same
+ * events as the simulation that was recorded, so anything that displays a RoadRage,
+ * such as RoadRagePanel, can display a replay instead. Each advance moves to the
+ * next recorded frame, and seek jumps to any frame, forwards or backwards, by
+ * starting from the nearest keyframe before it.
+ *
+ * <p>The log is memory-mapped and scanned once when opened, checking every frame,
+ * so seeking never meets a malformed one; a frame cut off at the end, as when the
+ * recording was not closed, is ignored. The vehicles are rebuilt
+ * from their class names, so each vehicle class needs a public constructor taking
+ * an x coordinate, a y coordinate and a Direction, as every vehicle in the model
+ * has. Like RoadRage, a player must only be used by one thread at a time.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public final class ReplayPlayer implements PropertyChangeEnabledRoadRageControls {
+
+    /**
+     * The lights, indexed by ordinal.
+     */
+    private static final Light[] LIGHTS = Light.values();
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The terrains, indexed by ordinal.
+     */
+    private static final Terrain[] TERRAINS = Terrain.values();
+
+    /**
+     * The replay log.
+     */
+    private final ByteBuffer myBuffer;
+
+    /**
+     * The recorded map.
+     */
+    private final Terrain[][] myGrid;
+
+    /**
+     * The vehicles, holding the state of the current frame.
+     */
+    private final List<Vehicle> myVehicles;
+
+    /**
+     * The packed state backing the vehicles.
+     */
+    private final VehicleStore myStore;
+
+    /**
+     * The unchanging facts about the vehicles, shared by every snapshot.
+     */
+    private final TickSnapshot.Roster myRoster;
+
+    /**
+     * Where each frame starts in the log.
+     */
+    private final int[] myFrameOffsets;
+
+    /**
+     * The number of each keyframe, in increasing order.
+     */
+    private final int[] myKeyframes;
+
+    /**
+     * Manager for Property Change Listeners.
+     */
+    private final PropertyChangeSupport myPcs;
+
+    /**
+     * The current frame, or -1 before the first.
+     */
+    private int myFrame;
+
+    /**
+     * The time step of the current frame.
+     */
+    private long myTimestep;
+
+    /**
+     * The light of the current frame.
+     */
+    private Light myLight;
+
+    /**
+     * The latest snapshot fired, or null if none has been.
+     */
+    private TickSnapshot myLastSnapshot;
+
+    /**
+     * Creates a player over a replay log and scans its frames.
+     *
+     * @param theBuffer the replay log
+     * @param theSource where the log came from, for error messages
+     * @throws IOException if the log is malformed
+     */
+    private ReplayPlayer(final ByteBuffer theBuffer, final String theSource)
+        throws IOException {
+        myBuffer = theBuffer;
+        myPcs = new PropertyChangeSupport(this);
+        myFrame = -1;
+        try {
+            if (theBuffer.getInt() != ReplayRecorder.MAGIC) {
+                throw new IOException(theSource + " is not a replay log");
+            }
+            final int version = theBuffer.getInt();
+            if (version != ReplayRecorder.VERSION) {
+                throw new IOException("Replay log " + theSource + " has unknown version "
+                                      + version);
+            }
+            myGrid = readGrid(theSource);
+            myVehicles = readVehicles(theSource);
+        } catch (final BufferUnderflowException bue) {
+            throw new IOException("Replay log " + theSource + " is cut off in its header",
+                                  bue);
+        }
+        myStore = new VehicleStore(myVehicles);
+        myRoster = new TickSnapshot.Roster(myVehicles);
+
+        final List<Integer> frames = new ArrayList<>();
+        final List<Integer> keyframes = new ArrayList<>();
+        int offset = theBuffer.position();
+        int size = frameSize(offset);
+        while (size > 0) {
+            if (!isValidFrame(offset)) {
+                throw new IOException("Malformed replay log " + theSource + " at byte "
+                                      + offset);
+            }
+            if (theBuffer.get(offset) == ReplayRecorder.KEYFRAME) {
+                keyframes.add(frames.size());
+            } else if (keyframes.isEmpty()) {
+                throw new IOException("Replay log " + theSource
+                                      + " does not start with a keyframe");
+            }
+            frames.add(offset);
+            offset += size;
+            size = frameSize(offset);
+        }
+        if (size < 0) {
+            throw new IOException("Malformed replay log " + theSource + " at byte "
+                                  + offset);
+        }
+        myFrameOffsets = frames.stream().mapToInt(Integer::intValue).toArray();
+        myKeyframes = keyframes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Opens a replay log written by ReplayRecorder.
+     *
+     * @param theFile the replay log
+     * @return the player, before the first frame; call start to show it
+     * @throws IOException if the file cannot be read or is not a valid replay log
+     */
+    public static ReplayPlayer open(final Path theFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(theFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Replay log " + theFile + " is too large: "
+                                      + channel.size() + " bytes");
+            }
+            return new ReplayPlayer(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                                channel.size()), theFile.toString());
+        }
+    }
+
+    /**
+     * Tests whether a file starts like a replay log.
+     *
+     * @param theFile the file
+     * @return true if the file starts with the replay log magic number
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isReplayLog(final Path theFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(theFile, StandardOpenOption.READ)) {
+            final ByteBuffer start = ByteBuffer.allocate(Integer.BYTES);
+            while (start.hasRemaining() && channel.read(start) >= 0) {
+                // keep reading until the magic number is in or the file ends
+            }
+            return !start.hasRemaining() && start.getInt(0) == ReplayRecorder.MAGIC;
+        }
+    }
+
+    /**
+     * Returns the number of recorded frames.
+     *
+     * @return the number of frames
+     */
+    public int getFrameCount() {
+        return myFrameOffsets.length;
+    }
+
+    /**
+     * Returns the current frame.
+     *
+     * @return the number of the current frame, or -1 before the first
+     */
+    public int getFrame() {
+        return myFrame;
+    }
+
+    /**
+     * Moves to a frame and tells listeners of the new time, light and vehicles, as
+     * if the simulation had ticked from the current frame to that one.
+     *
+     * @param theFrame the number of the frame
+     * @throws IndexOutOfBoundsException if there is no such frame
+     */
+    public void seek(final int theFrame) {
+        if (theFrame < 0 || theFrame >= myFrameOffsets.length) {
+            throw new IndexOutOfBoundsException("Frame " + theFrame + " of "
+                                                + myFrameOffsets.length);
+        }
+        int first = myFrame + 1;
+        if (theFrame < first || theFrame - first > ReplayRecorder.KEYFRAME_INTERVAL) {
+            int key = Arrays.binarySearch(myKeyframes, theFrame);
+            if (key < 0) {
+                key = -key - 2;
+            }
+            first = myKeyframes[key];
+        }
+        final long oldTimestep = myTimestep;
+        final Light oldLight = myLight;
+        for (int frame = first; frame <= theFrame; frame++) {
+            applyFrame(myFrameOffsets[frame]);
+        }
+        myFrame = theFrame;
+        myPcs.firePropertyChange(PROPERTY_TIME, oldTimestep, myTimestep);
+        myPcs.firePropertyChange(PROPERTY_LIGHT, oldLight, myLight);
+        fireVehicleChange();
+    }
+
+    /**
+     * Moves to the next frame; does nothing at the last frame.
+     */
+    @Override
+    public void advance() {
+        if (myFrame + 1 < myFrameOffsets.length) {
+            seek(myFrame + 1);
+        }
+    }
+
+    @Override
+    public void start() {
+        reset();
+    }
+
+    /**
+     * Moves to the first frame, telling listeners of the map as well.
+     */
+    @Override
+    public void reset() {
+        myPcs.firePropertyChange(PROPERTY_GRID, null, myGrid.clone());
+        if (myFrameOffsets.length > 0) {
+            myFrame = -1;
+            seek(0);
+        }
+    }
+
+    @Override
+    public int getHeight() {
+        return myGrid.length;
+    }
+
+    @Override
+    public int getWidth() {
+        return myGrid.length == 0 ? 0 : myGrid[0].length;
+    }
+
+    @Override
+    public void addPropertyChangeListener(final PropertyChangeListener theListener) {
+        myPcs.addPropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(theListener);
+    }
+
+    @Override
+    public void addPropertyChangeListener(final String thePropertyName,
+                                          final PropertyChangeListener theListener) {
+        myPcs.addPropertyChangeListener(thePropertyName, theListener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final String thePropertyName,
+                                             final PropertyChangeListener theListener) {
+        myPcs.removePropertyChangeListener(thePropertyName, theListener);
+    }
+
+    /**
+     * Reads the map from the header.
+     *
+     * @param theSource where the log came from, for error messages
+     * @return the map
+     * @throws IOException if the map is malformed
+     */
+    private Terrain[][] readGrid(final String theSource) throws IOException {
+        final int height = myBuffer.getInt();
+        final int width = myBuffer.getInt();
+        if (height < 0 || width < 0 || (long) height * width > myBuffer.remaining()) {
+            throw new IOException("Replay log " + theSource + " has a malformed map of "
+                                  + height + " x " + width);
+        }
+        final Terrain[][] result = new Terrain[height][width];
+        for (final Terrain[] row : result) {
+            for (int x = 0; x < width; x++) {
+                final int terrain = myBuffer.get();
+                if (terrain < 0 || terrain >= TERRAINS.length) {
+                    throw new IOException("Replay log " + theSource
+                                          + " has unknown terrain " + terrain);
+                }
+                row[x] = TERRAINS[terrain];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the vehicle types from the header and creates the vehicles.
+     *
+     * @param theSource where the log came from, for error messages
+     * @return the vehicles, all at 0, 0
+     * @throws IOException if a type is unknown or cannot be created
+     */
+    private List<Vehicle> readVehicles(final String theSource) throws IOException {
+        final List<Constructor<? extends Vehicle>> types = new ArrayList<>();
+        final int typeCount = myBuffer.get() & 0xFF;
+        for (int t = 0; t < typeCount; t++) {
+            final byte[] name = new byte[myBuffer.getShort() & 0xFFFF];
+            myBuffer.get(name);
+            final String className = new String(name, StandardCharsets.UTF_8);
+            try {
+                // not initialized, so a log naming a class that is not a vehicle never
+                // runs its static code
+                types.add(Class.forName(className, false, ReplayPlayer.class.getClassLoader())
+                          .asSubclass(Vehicle.class)
+                          .getConstructor(int.class, int.class, Direction.class));
+            } catch (final ReflectiveOperationException | ClassCastException e) {
+                throw new IOException("Replay log " + theSource + " has vehicle type "
+                                      + className + ", which cannot be created", e);
+            }
+        }
+
+        final int count = myBuffer.getInt();
+        if (count < 0 || count > myBuffer.remaining()) {
+            throw new IOException("Replay log " + theSource + " has " + count
+                                  + " vehicles");
+        }
+        final List<Vehicle> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int type = myBuffer.get() & 0xFF;
+            if (type >= types.size()) {
+                throw new IOException("Replay log " + theSource
+                                      + " has unknown vehicle type " + type);
+            }
+            try {
+                result.add(types.get(type).newInstance(0, 0, Direction.NORTH));
+            } catch (final InstantiationException | IllegalAccessException
+                           | InvocationTargetException e) {
+                throw new IOException("Replay log " + theSource + " has a vehicle of type "
+                                      + types.get(type).getName()
+                                      + ", which cannot be created", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the size of the frame at an offset.
+     *
+     * @param theOffset where the frame starts
+     * @return the size in bytes, 0 at the end of the log or if the frame is cut off,
+     *         or -1 if the frame is malformed
+     */
+    private int frameSize(final int theOffset) {
+        final int head = 1 + Long.BYTES + 1;
+        final int remaining = myBuffer.limit() - theOffset;
+        int result = 0;
+        if (remaining >= head) {
+            final byte tag = myBuffer.get(theOffset);
+            final long size;
+            if (tag == ReplayRecorder.KEYFRAME) {
+                size = head + (long) myVehicles.size() * ReplayRecorder.KEYFRAME_VEHICLE_BYTES;
+            } else if (tag == ReplayRecorder.DELTA && remaining >= head + Integer.BYTES) {
+                final int changes = myBuffer.getInt(theOffset + head);
+                size = changes < 0 ? -1
+                    : head + Integer.BYTES
+                      + (long) changes * ReplayRecorder.DELTA_VEHICLE_BYTES;
+            } else if (tag == ReplayRecorder.DELTA) {
+                size = 0;
+            } else {
+                size = -1;
+            }
+            if (size < 0) {
+                result = -1;
+            } else if (size <= remaining) {
+                result = (int) size;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks that every light, direction and vehicle index in a frame is in range.
+     *
+     * @param theOffset where the frame starts; the whole frame is in the log
+     * @return true if the frame can be applied
+     */
+    private boolean isValidFrame(final int theOffset) {
+        final ByteBuffer in = myBuffer.duplicate().position(theOffset);
+        final byte tag = in.get();
+        in.getLong();
+        boolean result = isOrdinal(in.get(), LIGHTS.length);
+        if (tag == ReplayRecorder.KEYFRAME) {
+            for (int i = 0; result && i < myVehicles.size(); i++) {
+                result = isValidVehicle(in);
+            }
+        } else {
+            final int changes = in.getInt();
+            for (int k = 0; result && k < changes; k++) {
+                final int index = in.getInt();
+                result = index >= 0 && index < myVehicles.size() && isValidVehicle(in);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the state of one vehicle in a frame and moves past it.
+     *
+     * @param theInput the log, positioned at the vehicle's coordinates
+     * @return true if the direction is in range
+     */
+    private static boolean isValidVehicle(final ByteBuffer theInput) {
+        theInput.position(theInput.position() + 2 * Integer.BYTES);
+        final byte direction = theInput.get();
+        theInput.get();
+        return isOrdinal(direction, DIRECTIONS.length);
+    }
+
+    /**
+     * Checks an ordinal read from the log.
+     *
+     * @param theOrdinal the ordinal
+     * @param theCount the number of constants
+     * @return true if the ordinal names one of the constants
+     */
+    private static boolean isOrdinal(final byte theOrdinal, final int theCount) {
+        return theOrdinal >= 0 && theOrdinal < theCount;
+    }
+
+    /**
+     * Applies the frame at an offset to the vehicles.
+     *
+     * @param theOffset where the frame starts
+     */
+    private void applyFrame(final int theOffset) {
+        final ByteBuffer in = myBuffer.duplicate().position(theOffset);
+        final byte tag = in.get();
+        myTimestep = in.getLong();
+        myLight = LIGHTS[in.get()];
+        if (tag == ReplayRecorder.KEYFRAME) {
+            for (int i = 0; i < myVehicles.size(); i++) {
+                applyVehicle(in, i);
+            }
+        } else {
+            final int changes = in.getInt();
+            for (int k = 0; k < changes; k++) {
+                applyVehicle(in, in.getInt());
+            }
+        }
+    }
+
+    /**
+     * Reads the state of one vehicle and applies it.
+     *
+     * @param theInput the log, positioned at the vehicle's coordinates
+     * @param theIndex the vehicle
+     */
+    private void applyVehicle(final ByteBuffer theInput, final int theIndex) {
+        final int x = theInput.getInt();
+        final int y = theInput.getInt();
+        final Direction direction = DIRECTIONS[theInput.get()];
+        final boolean alive = theInput.get() != 0;
+        myStore.restore(theIndex, x, y, direction, alive ? 0 : 1, 0);
+    }
+
+    /**
+     * Tells listeners of the vehicles of the current frame, as RoadRage does.
+     */
+    private void fireVehicleChange() {
+        if (myPcs.hasListeners(PROPERTY_VEHICLES)) {
+            myPcs.firePropertyChange(PROPERTY_VEHICLES, null, new ArrayList<>(myVehicles));
+        }
+        final boolean deltaWanted = myPcs.hasListeners(PROPERTY_VEHICLE_DELTA);
+        if (deltaWanted || myPcs.hasListeners(PROPERTY_SNAPSHOT)) {
+            final TickSnapshot previous = myLastSnapshot;
+            myLastSnapshot = TickSnapshot.of(myTimestep, myLight, myVehicles, myRoster);
+            myPcs.firePropertyChange(PROPERTY_SNAPSHOT, null, myLastSnapshot);
+            if (deltaWanted && previous != null) {
+                myPcs.firePropertyChange(PROPERTY_VEHICLE_DELTA, previous,
+                                         VehicleDelta.between(previous, myLastSnapshot));
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+
+import edu.uw.tcss.model.Terrain;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Records a run of a simulation to an append-only replay log that ReplayPlayer can
+ * play back. The recorder listens for tick snapshots; the tick thread only hands
+ * each snapshot to a queue, and a writer thread of the recorder's own works out
+ * what changed and writes it to the file through a buffered channel. If the writer
+ * falls far behind, the tick thread waits for it, so no tick is lost.
+ *
+ * <p>The log starts with the map and the type of every vehicle. Then comes one
+ * frame per snapshot: usually the time step, the light and the vehicles that
+ * changed since the previous frame, and every KEYFRAME_INTERVAL frames, or when
+ * the time step jumps, as after a reset, the state of every vehicle. All numbers
+ * are big-endian:
+ *
+ * <pre>
+ * header:   int magic "RRRP", int version, int height, int width,
+ *           height * width bytes of terrain ordinals, row by row,
+ *           byte number of types, for each type a short length and the UTF-8 class
+ *           name, int number of vehicles, a byte type index per vehicle
+ * keyframe: byte 'K', long time step, byte light ordinal,
+ *           for every vehicle int x, int y, byte direction ordinal, byte alive
+ * delta:    byte 'D', long time step, byte light ordinal, int number of changes,
+ *           for each change int vehicle index, int x, int y, byte direction
+ *           ordinal, byte alive
+ * </pre>
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public final class ReplayRecorder implements PropertyChangeListener, Closeable {
+
+    /**
+     * The first four bytes of every replay log, "RRRP".
+     */
+    static final int MAGIC = 0x52525250;
+
+    /**
+     * The version of the replay log format written.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The tag of a keyframe.
+     */
+    static final byte KEYFRAME = 'K';
+
+    /**
+     * The tag of a delta frame.
+     */
+    static final byte DELTA = 'D';
+
+    /**
+     * The most frames between two keyframes, so a player can seek quickly.
+     */
+    static final int KEYFRAME_INTERVAL = 256;
+
+    /**
+     * The size of one vehicle in a keyframe, in bytes.
+     */
+    static final int KEYFRAME_VEHICLE_BYTES = 2 * Integer.BYTES + 2;
+
+    /**
+     * The size of one change in a delta frame, in bytes.
+     */
+    static final int DELTA_VEHICLE_BYTES = 3 * Integer.BYTES + 2;
+
+    /**
+     * The size of the write buffer, in bytes.
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The most snapshots waiting to be written before the tick thread waits.
+     */
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Queued after the last snapshot to stop the writer thread.
+     */
+    private static final TickSnapshot END = TickSnapshot.of(0, null, List.of());
+
+    /**
+     * The simulation being recorded.
+     */
+    private final RoadRage myRoadRage;
+
+    /**
+     * The file being written.
+     */
+    private final FileChannel myChannel;
+
+    /**
+     * The bytes not yet written to the file; used only by the writer thread.
+     */
+    private final ByteBuffer myBuffer;
+
+    /**
+     * The snapshots waiting to be written.
+     */
+    private final BlockingQueue<TickSnapshot> myQueue;
+
+    /**
+     * The thread writing the file.
+     */
+    private final Thread myWriter;
+
+    /**
+     * The previous snapshot written; used only by the writer thread.
+     */
+    private TickSnapshot myPrevious;
+
+    /**
+     * The number of frames since the last keyframe; used only by the writer thread.
+     */
+    private int mySinceKeyframe;
+
+    /**
+     * The first failure of the writer thread, or null if there has been none.
+     */
+    private volatile IOException myFailure;
+
+    /**
+     * Whether close has been called.
+     */
+    private boolean myClosed;
+
+    /**
+     * Creates a recorder that writes the header of a log.
+     *
+     * @param theRoadRage the simulation to record
+     * @param theChannel the file to write
+     * @throws IOException if the header cannot be written
+     */
+    private ReplayRecorder(final RoadRage theRoadRage, final FileChannel theChannel)
+        throws IOException {
+        myRoadRage = theRoadRage;
+        myChannel = theChannel;
+        myBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        myQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        writeHeader(theRoadRage.getGrid(), theRoadRage.takeSnapshot());
+        myWriter = new Thread(this::writeFrames, "road-rage-recorder");
+        myWriter.setDaemon(true);
+    }
+
+    /**
+     * Starts recording a simulation to a new replay log. The log starts with the
+     * next snapshot the simulation fires, usually on the next tick or reset. Call
+     * this while the simulation is not advancing, or on the thread advancing it.
+     *
+     * @param theRoadRage the simulation to record
+     * @param theFile the replay log to write, replaced if it exists
+     * @return the recorder, which must be closed to finish the log
+     * @throws IOException if the file cannot be created
+     */
+    public static ReplayRecorder record(final RoadRage theRoadRage, final Path theFile)
+        throws IOException {
+        final FileChannel channel = FileChannel.open(theFile, StandardOpenOption.CREATE,
+                                                     StandardOpenOption.WRITE,
+                                                     StandardOpenOption.TRUNCATE_EXISTING);
+        final ReplayRecorder result;
+        try {
+            result = new ReplayRecorder(theRoadRage, channel);
+        } catch (final IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+        result.myWriter.start();
+        theRoadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT, result);
+        return result;
+    }
+
+    /**
+     * Queues a snapshot to be written, waiting if the queue is full.
+     *
+     * @param theEvent the snapshot event
+     */
+    @Override
+    public void propertyChange(final PropertyChangeEvent theEvent) {
+        if (myFailure == null && PROPERTY_SNAPSHOT.equals(theEvent.getPropertyName())) {
+            try {
+                myQueue.put((TickSnapshot) theEvent.getNewValue());
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops recording, waits for every queued snapshot to be written and closes the
+     * log. Call this on the thread advancing the simulation, or once it has stopped.
+     *
+     * @throws IOException if any part of the log could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (myClosed) {
+            return;
+        }
+        myClosed = true;
+        myRoadRage.removePropertyChangeListener(PROPERTY_SNAPSHOT, this);
+        try {
+            myQueue.put(END);
+            myWriter.join();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            myWriter.interrupt();
+            throw new InterruptedIOException("Interrupted finishing the replay log");
+        } finally {
+            myChannel.close();
+        }
+        if (myFailure != null) {
+            throw myFailure;
+        }
+    }
+
+    /**
+     * Writes queued snapshots until close is called; the body of the writer thread.
+     */
+    private void writeFrames() {
+        try {
+            TickSnapshot snapshot = myQueue.take();
+            while (snapshot != END) {
+                writeFrame(snapshot);
+                if (myQueue.isEmpty()) {
+                    flush();
+                }
+                snapshot = myQueue.take();
+            }
+            flush();
+        } catch (final IOException ioe) {
+            myFailure = ioe;
+            myQueue.clear();
+        } catch (final InterruptedException ie) {
+            myFailure = new InterruptedIOException("Replay log writer interrupted");
+        }
+    }
+
+    /**
+     * Writes the map and the vehicle types.
+     *
+     * @param theGrid the map
+     * @param theVehicles the vehicles, for their types
+     * @throws IOException if the header cannot be written
+     */
+    private void writeHeader(final Terrain[][] theGrid, final TickSnapshot theVehicles)
+        throws IOException {
+        final int height = theGrid.length;
+        final int width;
+        if (height == 0) {
+            width = 0;
+        } else {
+            width = theGrid[0].length;
+        }
+        room(4 * Integer.BYTES);
+        myBuffer.putInt(MAGIC).putInt(VERSION);
+        myBuffer.putInt(height).putInt(width);
+        for (final Terrain[] row : theGrid) {
+            for (final Terrain terrain : row) {
+                room(1);
+                myBuffer.put((byte) terrain.ordinal());
+            }
+        }
+
+        final List<Class<?>> types = new ArrayList<>();
+        final byte[] typeOfVehicle = new byte[theVehicles.size()];
+        for (int i = 0; i < theVehicles.size(); i++) {
+            int index = types.indexOf(theVehicles.getType(i));
+            if (index < 0) {
+                index = types.size();
+                types.add(theVehicles.getType(i));
+            }
+            typeOfVehicle[i] = (byte) index;
+        }
+        room(1);
+        myBuffer.put((byte) types.size());
+        for (final Class<?> type : types) {
+            final byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+            room(Short.BYTES + name.length);
+            myBuffer.putShort((short) name.length).put(name);
+        }
+        room(Integer.BYTES);
+        myBuffer.putInt(typeOfVehicle.length);
+        for (final byte type : typeOfVehicle) {
+            room(1);
+            myBuffer.put(type);
+        }
+        flush();
+    }
+
+    /**
+     * Writes one frame: a keyframe if one is due, otherwise the changes since the
+     * previous frame.
+     *
+     * @param theSnapshot the snapshot
+     * @throws IOException if the frame cannot be written
+     */
+    private void writeFrame(final TickSnapshot theSnapshot) throws IOException {
+        final boolean key = myPrevious == null
+                            || theSnapshot.getTimestep() != myPrevious.getTimestep() + 1
+                            || mySinceKeyframe + 1 >= KEYFRAME_INTERVAL;
+        room(1 + Long.BYTES + 1);
+        myBuffer.put(key ? KEYFRAME : DELTA);
+        myBuffer.putLong(theSnapshot.getTimestep());
+        myBuffer.put((byte) theSnapshot.getLight().ordinal());
+        if (key) {
+            for (int i = 0; i < theSnapshot.size(); i++) {
+                room(KEYFRAME_VEHICLE_BYTES);
+                myBuffer.putInt(theSnapshot.getX(i)).putInt(theSnapshot.getY(i));
+                myBuffer.put((byte) theSnapshot.getDirection(i).ordinal());
+                myBuffer.put((byte) (theSnapshot.isAlive(i) ? 1 : 0));
+            }
+            mySinceKeyframe = 0;
+        } else {
+            final VehicleDelta delta = VehicleDelta.between(myPrevious, theSnapshot);
+            room(Integer.BYTES);
+            myBuffer.putInt(delta.size());
+            for (int k = 0; k < delta.size(); k++) {
+                room(DELTA_VEHICLE_BYTES);
+                myBuffer.putInt(delta.getIndex(k));
+                myBuffer.putInt(delta.getX(k)).putInt(delta.getY(k));
+                myBuffer.put((byte) delta.getDirection(k).ordinal());
+                myBuffer.put((byte) (delta.isAlive(k) ? 1 : 0));
+            }
+            mySinceKeyframe++;
+        }
+        myPrevious = theSnapshot;
+    }
+
+    /**
+     * Makes room in the buffer, writing it out if it is too full.
+     *
+     * @param theBytes the number of bytes about to be put
+     * @throws IOException if the buffer cannot be written
+     */
+    private void room(final int theBytes) throws IOException {
+        if (myBuffer.remaining() < theBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes out everything in the buffer.
+     *
+     * @throws IOException if the buffer cannot be written
+     */
+    private void flush() throws IOException {
+        myBuffer.flip();
+        while (myBuffer.hasRemaining()) {
+            myChannel.write(myBuffer);
+        }
+        myBuffer.clear();
+    }
+}
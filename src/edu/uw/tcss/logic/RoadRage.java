@@ -4,17 +4,26 @@
 
 package edu.uw.tcss.logic;
 
+import edu.uw.tcss.model.AbstractVehicle;
 import edu.uw.tcss.model.Direction;
 import edu.uw.tcss.model.Light;
 import edu.uw.tcss.model.Terrain;
 import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 
 /**
@@ -30,11 +39,56 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
      */
     private static final int LIGHT_CHANGE_TICKS = 15;
     
+    /**
+     * The first four bytes of every checkpoint, "RRCK".
+     */
+    private static final int CHECKPOINT_MAGIC = 0x5252434B;
+    
+    /**
+     * The version of the checkpoint format written.
+     */
+    private static final int CHECKPOINT_VERSION = 2;
+    
+    /**
+     * The outcome of a move in which the vehicle moved one square.
+     */
+    private static final byte MOVED = 0;
+    
+    /**
+     * The outcome of a move in which canPass refused the chosen direction.
+     */
+    private static final byte BLOCKED = 1;
+    
+    /**
+     * The outcome of a move in which a dead vehicle came back to life.
+     */
+    private static final byte REVIVED = 2;
+    
+    /**
+     * The outcome of a move in which a dead vehicle stayed dead.
+     */
+    private static final byte STILL_DEAD = 3;
+    
+    /**
+     * The lights, indexed by ordinal.
+     */
+    private static final Light[] LIGHTS = Light.values();
+    
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
     /**
      * The terrain grid for the simulation.
      */
     private final Terrain[][] myGrid;
     
+    /**
+     * The neighboring terrain around every square of the grid.
+     */
+    private final NeighborTable myNeighbors;
+    
     /**
      * The current timestep of the simulation.
      */
@@ -50,66 +104,390 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
      */
     private final List<Vehicle> myVehicles;
     
+    /**
+     * The packed state backing the vehicles. 
+     */
+    private final VehicleStore myStore;
+    
+    /**
+     * Whether any vehicle does not extend AbstractVehicle, so its slot in the store
+     * has to be copied from the vehicle whenever the vehicle changes.
+     */
+    private final boolean myHasForeignVehicles;
+    
+    /**
+     * The unchanging facts about the vehicles, shared by every snapshot. 
+     */
+    private final TickSnapshot.Roster myRoster;
+    
+    /**
+     * The latest snapshot built, or null if none has been. 
+     */
+    private TickSnapshot myLastSnapshot;
+    
     /**
      * Manager for Property Change Listeners. 
      */
     private final PropertyChangeSupport myPcs;
     
+    /**
+     * Buckets the vehicles by square for collision detection.
+     */
+    private final CollisionIndex myCollisionIndex;
+    
+    /**
+     * Tells the vehicles at two indices that they have collided.
+     */
+    private final CollisionIndex.Pair myCollide;
+    
+    /**
+     * How collisions are found each tick.
+     */
+    private CollisionMode myCollisionMode;
+    
+    /**
+     * How vehicles are advanced each tick.
+     */
+    private TickMode myTickMode;
+    
+    /**
+     * The seed every vehicle's source of randomness is split from.
+     */
+    private long mySeed;
+    
+    /**
+     * The outcome of each vehicle's latest move; each entry is written only by the 
+     * thread moving that vehicle.
+     */
+    private final byte[] myOutcomes;
+    
+    /**
+     * The running engine metrics, or null when metrics are disabled.
+     */
+    private volatile EngineMetrics myMetrics;
+    
     /**
      * Sets the initial state of a RoadRage Object. 
      * 
      * @param theGrid the 2D grid of Terrain that defines the map
      * @param theVehicles the Vehicles on the map
+     * @throws IllegalArgumentException if a vehicle is already in another 
+     *         simulation, or appears in the list twice
      */
     public RoadRage(final Terrain[][] theGrid, final List<Vehicle> theVehicles) {
         super();
         myVehicles = new ArrayList<>(theVehicles);
+        myStore = VehicleStore.of(myVehicles);
+        myHasForeignVehicles = findUnsavedVehicle() != null;
+        myRoster = new TickSnapshot.Roster(myVehicles);
         myGrid = theGrid.clone();
+        myNeighbors = new NeighborTable(myGrid);
         myPcs = new PropertyChangeSupport(this);
+        myCollisionIndex = new CollisionIndex(getWidth(), getHeight(), myStore);
+        myCollide = this::collide;
+        myOutcomes = new byte[myStore.size()];
+        myCollisionMode = CollisionMode.CELL_INDEX;
+        myTickMode = TickMode.SEQUENTIAL;
+        setSeed(new SplittableRandom().nextLong());
     }
     
-    @SuppressWarnings("LawOfDemeter")
     @Override
     public void advance() {
-        for (final Vehicle v : myVehicles) {
-            final Map<Direction, Terrain> neighbors = generateNeighbors(v);
-
-            // move the vehicle
-            if (v.isAlive()) {
-                final Direction newDirection = v.chooseDirection(neighbors);
-                v.setDirection(newDirection);
-
-                // move one square in current direction, if it's okay to do so
-                if (v.canPass(neighbors.get(newDirection), myLight)) {
-                    v.setX(v.getX() + newDirection.dx());
-                    v.setY(v.getY() + newDirection.dy());
-                }
-            } else {
-                // become one move closer to revival
-                v.poke();
+        final TickEvent event = new TickEvent();
+        event.begin();
+        final EngineMetrics metrics = myMetrics;
+        final long start;
+        final int deadBefore;
+        if (metrics == null) {
+            start = 0;
+            deadBefore = 0;
+        } else {
+            start = System.nanoTime();
+            deadBefore = countDead();
+        }
+
+        final int collisions;
+        if (myTickMode == TickMode.TWO_PHASE) {
+            collisions = advanceTwoPhase();
+        } else {
+            collisions = advanceSequential();
+        }
+        advanceTimeStep();
+        final boolean lightChanged = myTimestep % LIGHT_CHANGE_TICKS == 0;
+        if (lightChanged) {
+            changeLight();
+        }
+        fireVehicleChange();
+
+        if (event.shouldCommit()) {
+            event.timestep = myTimestep;
+            event.vehicleCount = myVehicles.size();
+            event.collisions = collisions;
+            event.width = getWidth();
+            event.height = getHeight();
+            event.tickMode = myTickMode.name();
+            event.commit();
+        }
+
+        if (metrics != null) {
+            recordTick(metrics, System.nanoTime() - start, deadBefore, collisions,
+                       lightChanged);
+        }
+    }
+    
+    /**
+     * Turns engine metrics on or off. Turning them on starts every total from zero;
+     * while they are off, ticks pay only for a null check.
+     * 
+     * @param theEnabled whether to collect metrics
+     */
+    public void setMetricsEnabled(final boolean theEnabled) {
+        myMetrics = theEnabled ? new EngineMetrics() : null;
+    }
+    
+    /**
+     * Returns whether engine metrics are being collected.
+     * 
+     * @return true if metrics are enabled
+     */
+    public boolean isMetricsEnabled() {
+        return myMetrics != null;
+    }
+    
+    /**
+     * Returns the engine metrics totalled since they were enabled. May be called on 
+     * any thread.
+     * 
+     * @return the metrics, or all zeros if metrics are disabled
+     */
+    public MetricsSnapshot getMetrics() {
+        final EngineMetrics metrics = myMetrics;
+        return metrics == null ? new EngineMetrics().snapshot() : metrics.snapshot();
+    }
+    
+    /**
+     * Sets how collisions are found each tick, in either tick mode. Both modes 
+     * produce identical results; ALL_PAIRS is kept so the two can be compared.
+     * 
+     * @param theMode the collision mode
+     */
+    public void setCollisionMode(final CollisionMode theMode) {
+        myCollisionMode = Objects.requireNonNull(theMode);
+    }
+    
+    /**
+     * Returns how collisions are found each tick.
+     * 
+     * @return the collision mode
+     */
+    public CollisionMode getCollisionMode() {
+        return myCollisionMode;
+    }
+    
+    /**
+     * Sets how vehicles are advanced each tick.
+     * 
+     * @param theMode the tick mode
+     */
+    public void setTickMode(final TickMode theMode) {
+        myTickMode = Objects.requireNonNull(theMode);
+    }
+    
+    /**
+     * Returns how vehicles are advanced each tick.
+     * 
+     * @return the tick mode
+     */
+    public TickMode getTickMode() {
+        return myTickMode;
+    }
+    
+    /**
+     * Returns the packed state backing the vehicles, in simulation order.
+     * 
+     * @return the vehicle store
+     */
+    public VehicleStore getVehicleStore() {
+        return myStore;
+    }
+    
+    /**
+     * Sets the seed for the simulation's randomness and gives every vehicle a new 
+     * source of randomness split from it. Two simulations of the same map with the
+     * same seed and tick mode make exactly the same moves, and reset() replays the
+     * same run again.
+     * 
+     * @param theSeed the seed
+     */
+    public void setSeed(final long theSeed) {
+        mySeed = theSeed;
+        seedVehicles();
+    }
+    
+    /**
+     * Returns the seed for the simulation's randomness.
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+    
+    /**
+     * Writes the full state of the simulation to a stream: the time step, the light,
+     * the seed, and every vehicle's position, direction, time left dead, time left
+     * waiting and the state of its source of randomness. The map itself is not 
+     * written, only its size. Saving changes nothing, so the run that continues 
+     * after a checkpoint, every run restored from it and a run with the same seed 
+     * that never took one all make exactly the same moves.
+     * 
+     * @param theOutput where to write the checkpoint; it is flushed but not closed
+     * @throws IOException if the checkpoint cannot be written
+     * @throws IllegalStateException if a vehicle does not extend AbstractVehicle, 
+     *         so its state cannot be saved
+     */
+    public void saveCheckpoint(final OutputStream theOutput) throws IOException {
+        final Vehicle unsaved = findUnsavedVehicle();
+        if (unsaved != null) {
+            throw new IllegalStateException("Cannot checkpoint a " 
+                                            + unsaved.getClass().getName());
+        }
+
+        final List<String> types = new ArrayList<>();
+        final byte[] typeOfVehicle = new byte[myStore.size()];
+        for (int i = 0; i < myStore.size(); i++) {
+            final String type = myStore.getType(i).getName();
+            int index = types.indexOf(type);
+            if (index < 0) {
+                index = types.size();
+                types.add(type);
             }
+            typeOfVehicle[i] = (byte) index;
+        }
 
-            // look for collisions
-            for (final Vehicle other : myVehicles) {
-                if (v.equals(other)) { // use of == is intentional - checking for same object
-                    // don't collide with self
-                    continue;
-                }
-
-                if (v.getX() == other.getX() && v.getY() == other.getY()) { //NOPMD
-                    // tell both vehicles they have collided
-                    v.collide(other);
-                    other.collide(v);
-                }
+        final DataOutputStream out = 
+            new DataOutputStream(new BufferedOutputStream(theOutput));
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeInt(getWidth());
+        out.writeInt(getHeight());
+        out.writeLong(myTimestep);
+        out.writeByte(myLight.ordinal());
+        out.writeLong(mySeed);
+        out.writeByte(types.size());
+        for (final String type : types) {
+            out.writeUTF(type);
+        }
+        out.writeInt(myStore.size());
+        for (int i = 0; i < myStore.size(); i++) {
+            out.writeByte(typeOfVehicle[i]);
+            out.writeInt(myStore.getX(i));
+            out.writeInt(myStore.getY(i));
+            out.writeByte(myStore.getDirection(i).ordinal());
+            out.writeInt(myStore.getLife(i));
+            out.writeInt(myStore.getWait(i));
+            out.writeLong(myStore.getRandomSeed(i));
+            out.writeLong(myStore.getRandomGamma(i));
+        }
+        out.flush();
+    }
+    
+    /**
+     * Puts the simulation back into the state saved in a checkpoint, which must have
+     * been taken from a simulation of the same map. Listeners are told of the new 
+     * time, light and vehicles, as after a tick.
+     * 
+     * @param theInput the checkpoint; it is read to the end of the checkpoint but 
+     *        not closed
+     * @throws IOException if the checkpoint cannot be read, is malformed, or does 
+     *         not match this simulation's map and vehicles, or if a vehicle does not
+     *         extend AbstractVehicle, so its state cannot be restored; the 
+     *         simulation is unchanged in every case
+     */
+    public void restoreCheckpoint(final InputStream theInput) throws IOException {
+        final Vehicle unrestorable = findUnsavedVehicle();
+        if (unrestorable != null) {
+            throw new IOException("Cannot restore a checkpoint into a " 
+                                  + unrestorable.getClass().getName());
+        }
+        final DataInputStream in = new DataInputStream(theInput);
+        if (in.readInt() != CHECKPOINT_MAGIC) {
+            throw new IOException("Not a Road Rage checkpoint");
+        }
+        final int version = in.readInt();
+        if (version != CHECKPOINT_VERSION) {
+            throw new IOException("Unknown checkpoint version " + version);
+        }
+        final int width = in.readInt();
+        final int height = in.readInt();
+        if (width != getWidth() || height != getHeight()) {
+            throw new IOException("Checkpoint of a " + height + " x " + width 
+                                  + " map, not " + getHeight() + " x " + getWidth());
+        }
+        final long timestep = in.readLong();
+        final Light light = LIGHTS[checkIndex(in.readUnsignedByte(), LIGHTS.length)];
+        final long seed = in.readLong();
+        final String[] types = new String[in.readUnsignedByte()];
+        for (int t = 0; t < types.length; t++) {
+            types[t] = in.readUTF();
+        }
+        final int count = in.readInt();
+        if (count != myStore.size()) {
+            throw new IOException("Checkpoint of " + count + " vehicles, not " 
+                                  + myStore.size());
+        }
+
+        final int[] state = new int[count * 5];
+        final long[] randoms = new long[count * 2];
+        for (int i = 0; i < count; i++) {
+            final String type = types[checkIndex(in.readUnsignedByte(), types.length)];
+            if (!type.equals(myStore.getType(i).getName())) {
+                throw new IOException("Checkpoint vehicle " + i + " is a " + type 
+                                      + ", not a " + myStore.getType(i).getName());
+            }
+            state[5 * i] = checkRange(in.readInt(), width, "x", i);
+            state[5 * i + 1] = checkRange(in.readInt(), height, "y", i);
+            state[5 * i + 2] = checkIndex(in.readUnsignedByte(), DIRECTIONS.length);
+            state[5 * i + 3] = checkRange(in.readInt(), Integer.MAX_VALUE, "life", i);
+            state[5 * i + 4] = in.readInt();
+            randoms[2 * i] = in.readLong();
+            randoms[2 * i + 1] = in.readLong();
+            if ((randoms[2 * i + 1] & 1) == 0) {
+                throw new IOException("Checkpoint vehicle " + i 
+                                      + " has an invalid source of randomness");
             }
         }
-        advanceTimeStep();
-        if (myTimestep % LIGHT_CHANGE_TICKS == 0) {
-            setLightColor(myLight.advance());
+
+        for (int i = 0; i < count; i++) {
+            myStore.restore(i, state[5 * i], state[5 * i + 1], DIRECTIONS[state[5 * i + 2]],
+                            state[5 * i + 3], state[5 * i + 4]);
+            myStore.seedRandom(i, randoms[2 * i], randoms[2 * i + 1]);
         }
+        mySeed = seed;
+        setTimeStep(timestep);
+        setLightColor(light);
         fireVehicleChange();
     }
     
+    /**
+     * Returns the terrain grid. The rows are shared, not copied.
+     * 
+     * @return the grid
+     */
+    Terrain[][] getGrid() {
+        return myGrid.clone();
+    }
+    
+    /**
+     * Takes a snapshot of the vehicles as they are now, without telling listeners.
+     * Call only on the thread advancing the simulation, or while it is not advancing.
+     * 
+     * @return the snapshot
+     */
+    public TickSnapshot takeSnapshot() {
+        return TickSnapshot.of(myTimestep, myLight, myVehicles, myRoster);
+    }
+    
     @Override
     public void start() {
         reset();
@@ -118,6 +496,7 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
     @Override
     public void reset() {
         resetVehicles();
+        seedVehicles();
         setLightColor(Light.GREEN);
         setTimeStep(0);
         fireGridChange();
@@ -131,7 +510,7 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
 
     @Override
     public int getWidth() {
-        return myGrid[0].length;
+        return myGrid.length == 0 ? 0 : myGrid[0].length;
     }
     
  
@@ -161,34 +540,217 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
     }
     
     /**
-     * Tests whether the square at the given x/y position exists on the map.
+     * Moves each vehicle in turn, checking for collisions after each move.
      * 
-     * @param theX The x position.
-     * @param theY The y position.
-     * @return true if the position exists on the map, false otherwise.
+     * @return the number of colliding pairs found
      */
-    private boolean isValidIndex(final int theY, final int theX) {
-        return theY >= 0 && theY < myGrid.length
-            && theX >= 0 && theX < myGrid[theY].length;
+    private int advanceSequential() {
+        int result = 0;
+        final boolean indexed = myCollisionMode == CollisionMode.CELL_INDEX;
+        if (indexed) {
+            myCollisionIndex.rebuild();
+        }
+        for (int i = 0; i < myStore.size(); i++) {
+            myOutcomes[i] = moveVehicle(i);
+
+            // look for collisions
+            if (indexed) {
+                myCollisionIndex.update(i);
+                result += myCollisionIndex.collide(i, myCollide);
+            } else {
+                result += collideAllPairs(i);
+            }
+        }
+        return result;
     }
     
     /**
-     * Generates a read-only neighbors map for the specified vehicle.
+     * Moves every vehicle in parallel, then resolves collisions in vehicle order.
+     * A vehicle's move depends only on its own state, the grid and the light, so 
+     * every vehicle sees the same state no matter which thread moves it.
      * 
-     * @param theMover The vehicle.
-     * @return The neighbors map.
+     * @return the number of colliding pairs found
      */
-    private Map<Direction, Terrain> generateNeighbors(final Vehicle theMover) {
-        final int x = theMover.getX();
-        final int y = theMover.getY();
-        final Map<Direction, Terrain> result = new HashMap<>();
+    private int advanceTwoPhase() {
+        IntStream.range(0, myStore.size()).parallel()
+            .forEach(i -> myOutcomes[i] = moveVehicle(i));
 
-        for (final Direction dir : Direction.values()) {
-            if (isValidIndex(y + dir.dy(), x + dir.dx())) {
-                result.put(dir, myGrid[y + dir.dy()][x + dir.dx()]);
+        int result = 0;
+        if (myCollisionMode == CollisionMode.CELL_INDEX) {
+            myCollisionIndex.rebuild();
+            for (int i = 0; i < myStore.size(); i++) {
+                result += myCollisionIndex.collideWithLater(i, myCollide);
+            }
+        } else {
+            for (int i = 0; i < myStore.size(); i++) {
+                result += collideWithLaterPairs(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Moves a living vehicle one square, or pokes a dead one. The position and 
+     * life are read from the store; the vehicle itself is only asked to choose its
+     * direction and whether it can pass.
+     * 
+     * @param theIndex the index of the vehicle
+     * @return what happened: MOVED, BLOCKED, REVIVED or STILL_DEAD
+     */
+    @SuppressWarnings("LawOfDemeter")
+    private byte moveVehicle(final int theIndex) {
+        final Vehicle vehicle = myVehicles.get(theIndex);
+        final int x = myStore.getX(theIndex);
+        final int y = myStore.getY(theIndex);
+        final Map<Direction, Terrain> neighbors = myNeighbors.get(x, y);
+
+        // move the vehicle
+        final byte result;
+        if (myStore.isAlive(theIndex)) {
+            final Direction newDirection = vehicle.chooseDirection(neighbors);
+            vehicle.setDirection(newDirection);
+
+            // move one square in current direction, if it's okay to do so
+            if (vehicle.canPass(neighbors.get(newDirection), myLight)) {
+                vehicle.setX(x + newDirection.dx());
+                vehicle.setY(y + newDirection.dy());
+                result = MOVED;
+            } else {
+                result = BLOCKED;
+            }
+            copyForeignVehicle(theIndex);
+        } else {
+            // become one move closer to revival
+            vehicle.poke();
+            copyForeignVehicle(theIndex);
+            result = myStore.isAlive(theIndex) ? REVIVED : STILL_DEAD;
+        }
+        return result;
+    }
+    
+    /**
+     * Checks the vehicle at an index against every other vehicle for collisions.
+     * 
+     * @param theIndex the index of the vehicle
+     * @return the number of colliding pairs found
+     */
+    private int collideAllPairs(final int theIndex) {
+        int result = 0;
+        final int x = myStore.getX(theIndex);
+        final int y = myStore.getY(theIndex);
+        for (int j = 0; j < myStore.size(); j++) {
+            if (j != theIndex && x == myStore.getX(j) && y == myStore.getY(j)) {
+                // tell both vehicles they have collided
+                collide(theIndex, j);
+                result++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Checks the vehicle at an index against every later vehicle for collisions. 
+     * Calling this for every index reports each pair once, in the same order as 
+     * CollisionIndex.collideWithLater.
+     * 
+     * @param theIndex the index of the vehicle
+     * @return the number of colliding pairs found
+     */
+    private int collideWithLaterPairs(final int theIndex) {
+        int result = 0;
+        final int x = myStore.getX(theIndex);
+        final int y = myStore.getY(theIndex);
+        for (int j = theIndex + 1; j < myStore.size(); j++) {
+            if (x == myStore.getX(j) && y == myStore.getY(j)) {
+                collide(theIndex, j);
+                result++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Tells the vehicles at two indices that they have collided.
+     * 
+     * @param theIndex the index of the vehicle
+     * @param theOther the index of the vehicle it collided with
+     */
+    private void collide(final int theIndex, final int theOther) {
+        CollisionEvent.collide(myVehicles.get(theIndex), myVehicles.get(theOther),
+                               myTimestep + 1);
+        copyForeignVehicle(theIndex);
+        copyForeignVehicle(theOther);
+    }
+    
+    /**
+     * Copies the state of a vehicle that does not extend AbstractVehicle into its 
+     * slot of the store. Vehicles that extend AbstractVehicle keep their state in 
+     * the store already.
+     * 
+     * @param theIndex the index of the vehicle
+     */
+    private void copyForeignVehicle(final int theIndex) {
+        if (myHasForeignVehicles) {
+            final Vehicle v = myVehicles.get(theIndex);
+            if (!(v instanceof AbstractVehicle)) {
+                myStore.restore(theIndex, v.getX(), v.getY(), v.getDirection(),
+                                v.isAlive() ? 0 : 1, 0);
+            }
+        }
+    }
+    
+    /**
+     * Adds a finished tick to the metrics.
+     * 
+     * @param theMetrics the metrics
+     * @param theNanos how long the tick took
+     * @param theDeadBefore the number of dead vehicles before the tick
+     * @param theCollisions the number of colliding pairs found
+     * @param theLightChanged whether the light changed
+     */
+    private void recordTick(final EngineMetrics theMetrics, final long theNanos,
+                            final int theDeadBefore, final int theCollisions,
+                            final boolean theLightChanged) {
+        final int[] outcomes = new int[STILL_DEAD + 1];
+        for (final byte outcome : myOutcomes) {
+            outcomes[outcome]++;
+        }
+        // every vehicle that died this tick is dead now unless it was revived first
+        final int deaths = countDead() - theDeadBefore + outcomes[REVIVED];
+        theMetrics.recordTick(theNanos, outcomes[MOVED], outcomes[BLOCKED], theCollisions,
+                              deaths, outcomes[REVIVED], theLightChanged);
+    }
+    
+    /**
+     * Counts the dead vehicles.
+     * 
+     * @return the number of dead vehicles
+     */
+    private int countDead() {
+        int result = 0;
+        for (int i = 0; i < myStore.size(); i++) {
+            if (!myStore.isAlive(i)) {
+                result++;
             }
         }
-        return Collections.unmodifiableMap(result);
+        return result;
+    }
+    
+    /**
+     * Moves the light on to its next color during a tick.
+     */
+    private void changeLight() {
+        final LightChangeEvent event = new LightChangeEvent();
+        event.begin();
+        final Light old = myLight;
+        setLightColor(myLight.advance());
+        if (event.shouldCommit()) {
+            event.timestep = myTimestep;
+            event.from = old.name();
+            event.to = myLight.name();
+            event.vehicleCount = myVehicles.size();
+            event.commit();
+        }
     }
     
     /**
@@ -221,10 +783,23 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
     }
     
     /**
-     * Inform PropertyChagneListeners of the current state of vehicles.
+     * Inform PropertyChagneListeners of the current state of vehicles. The list, the
+     * snapshot and the delta are each only built when someone is listening for them.
      */
     private void fireVehicleChange() {
-        myPcs.firePropertyChange(PROPERTY_VEHICLES, null, new ArrayList<>(myVehicles));
+        if (myPcs.hasListeners(PROPERTY_VEHICLES)) {
+            myPcs.firePropertyChange(PROPERTY_VEHICLES, null, new ArrayList<>(myVehicles));
+        }
+        final boolean deltaWanted = myPcs.hasListeners(PROPERTY_VEHICLE_DELTA);
+        if (deltaWanted || myPcs.hasListeners(PROPERTY_SNAPSHOT)) {
+            final TickSnapshot previous = myLastSnapshot;
+            myLastSnapshot = TickSnapshot.of(myTimestep, myLight, myVehicles, myRoster);
+            myPcs.firePropertyChange(PROPERTY_SNAPSHOT, null, myLastSnapshot);
+            if (deltaWanted && previous != null) {
+                myPcs.firePropertyChange(PROPERTY_VEHICLE_DELTA, previous,
+                                         VehicleDelta.between(previous, myLastSnapshot));
+            }
+        }
     }
     
     /**
@@ -234,12 +809,84 @@ public class RoadRage implements PropertyChangeEnabledRoadRageControls {
         myPcs.firePropertyChange(PROPERTY_GRID, null, myGrid.clone());
     }
     
+    /**
+     * Give every vehicle its own source of randomness, split from the seed in 
+     * vehicle order. Each vehicle is only ever moved by one thread at a time, so the
+     * sources are never shared between threads.
+     */
+    private void seedVehicles() {
+        final VehicleRandom root = new VehicleRandom(mySeed);
+        for (int i = 0; i < myStore.size(); i++) {
+            final VehicleRandom random = root.split();
+            if (myVehicles.get(i) instanceof AbstractVehicle) {
+                myStore.seedRandom(i, random.getSeed(), random.getGamma());
+            } else {
+                myVehicles.get(i).setRandom(random);
+            }
+        }
+    }
+    
+    /**
+     * Finds a vehicle whose state a checkpoint cannot hold, because it does not 
+     * extend AbstractVehicle.
+     * 
+     * @return the first such vehicle, or null if there is none
+     */
+    private Vehicle findUnsavedVehicle() {
+        Vehicle result = null;
+        for (final Vehicle v : myVehicles) {
+            if (!(v instanceof AbstractVehicle)) {
+                result = v;
+                break;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Checks an index read from a checkpoint.
+     * 
+     * @param theIndex the index
+     * @param theCount the number of valid indices
+     * @return the index
+     * @throws IOException if the index is out of range
+     */
+    private static int checkIndex(final int theIndex, final int theCount) 
+        throws IOException {
+        if (theIndex >= theCount) {
+            throw new IOException("Malformed checkpoint: index " + theIndex 
+                                  + " of " + theCount);
+        }
+        return theIndex;
+    }
+    
+    /**
+     * Checks a vehicle's value read from a checkpoint.
+     * 
+     * @param theValue the value
+     * @param theLimit the exclusive upper bound; the lower bound is 0
+     * @param theName the name of the value
+     * @param theVehicle the index of the vehicle
+     * @return the value
+     * @throws IOException if the value is out of range
+     */
+    private static int checkRange(final int theValue, final int theLimit, 
+                                  final String theName, final int theVehicle) 
+        throws IOException {
+        if (theValue < 0 || theValue >= theLimit) {
+            throw new IOException("Malformed checkpoint: vehicle " + theVehicle + " has " 
+                                  + theName + " " + theValue);
+        }
+        return theValue;
+    }
+    
     /**
      * Reset all of the vehicles to their original state. 
      */
     private void resetVehicles() {
-        for (final Vehicle mov : myVehicles) {
-            mov.reset();
+        for (int i = 0; i < myStore.size(); i++) {
+            myVehicles.get(i).reset();
+            copyForeignVehicle(i);
         }
     }
 
@@ -0,0 +1,64 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning one call to RoadRage.advance(), listeners
+ * included. Lining these up with garbage collection and lock events in a recording
+ * shows which ticks a stall landed in.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+@Name("edu.uw.tcss.Tick")
+@Label("Road Rage Tick")
+@Category({"Road Rage", "Simulation"})
+@Description("One advance of a Road Rage simulation")
+@StackTrace(false)
+final class TickEvent extends Event {
+
+    /**
+     * The time step the tick advanced to.
+     */
+    @Label("Time Step")
+    long timestep;
+
+    /**
+     * The number of vehicles in the simulation.
+     */
+    @Label("Vehicles")
+    int vehicleCount;
+
+    /**
+     * The number of colliding pairs found.
+     */
+    @Label("Collisions")
+    int collisions;
+
+    /**
+     * The width of the grid.
+     */
+    @Label("Width")
+    int width;
+
+    /**
+     * The height of the grid.
+     */
+    @Label("Height")
+    int height;
+
+    /**
+     * How vehicles were advanced.
+     */
+    @Label("Tick Mode")
+    String tickMode;
+}
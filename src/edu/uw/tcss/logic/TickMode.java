@@ -0,0 +1,27 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+/**
+ * The ways RoadRage may advance its vehicles through one tick.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 18
+ */
+public enum TickMode {
+
+    /**
+     * Move the vehicles one at a time on the calling thread, checking collisions after
+     * each move. Each move can see the moves made earlier in the same tick.
+     */
+    SEQUENTIAL,
+
+    /**
+     * First let every vehicle choose and make its move in parallel, seeing only the 
+     * state at the start of the tick, then resolve collisions on the calling thread 
+     * in vehicle order.
+     */
+    TWO_PHASE
+}
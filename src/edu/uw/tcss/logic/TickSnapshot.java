@@ -0,0 +1,298 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Light;
+import edu.uw.tcss.model.Vehicle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable picture of every vehicle at the end of one tick. Positions, directions
+ * and alive flags are packed into primitive arrays that are never written after the
+ * snapshot is built, so one snapshot can be shared by every listener, on any thread,
+ * without copying.
+ *
+ * <p>What never changes during a run (each vehicle's class and label) is kept in a
+ * roster shared by all snapshots of the same simulation. Every vehicle of a class is
+ * assumed to share the same alive and dead image file names.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 1
+ */
+public final class TickSnapshot {
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of bits in a word of the dead set.
+     */
+    private static final int WORD_BITS = Long.SIZE;
+
+    /**
+     * The time step this snapshot was taken at.
+     */
+    private final long myTimestep;
+
+    /**
+     * The state of the lights.
+     */
+    private final Light myLight;
+
+    /**
+     * The x and y coordinate of each vehicle, interleaved.
+     */
+    private final int[] myPositions;
+
+    /**
+     * The ordinal of the direction of each vehicle.
+     */
+    private final byte[] myDirections;
+
+    /**
+     * One bit per vehicle, set when the vehicle is dead.
+     */
+    private final long[] myDead;
+
+    /**
+     * The unchanging facts about the vehicles.
+     */
+    private final Roster myRoster;
+
+    /**
+     * The image file names of each vehicle class, alive then dead, as known when
+     * this snapshot was built.
+     */
+    private final String[][] myImageFileNames;
+
+    /**
+     * Takes a snapshot of the given vehicles.
+     *
+     * @param theTimestep the time step
+     * @param theLight the state of the lights
+     * @param theVehicles the vehicles, in the same order as theRoster
+     * @param theRoster the roster of the vehicles
+     */
+    private TickSnapshot(final long theTimestep, final Light theLight,
+                         final List<? extends Vehicle> theVehicles, final Roster theRoster) {
+        final int size = theVehicles.size();
+        myTimestep = theTimestep;
+        myLight = theLight;
+        myPositions = new int[size * 2];
+        myDirections = new byte[size];
+        myDead = new long[(size + WORD_BITS - 1) / WORD_BITS];
+        myRoster = theRoster;
+        for (int i = 0; i < size; i++) {
+            final Vehicle v = theVehicles.get(i);
+            myPositions[2 * i] = v.getX();
+            myPositions[2 * i + 1] = v.getY();
+            myDirections[i] = (byte) v.getDirection().ordinal();
+            if (!v.isAlive()) {
+                myDead[i / WORD_BITS] |= 1L << i;
+            }
+            theRoster.learnImageFileName(i, v);
+        }
+        myImageFileNames = theRoster.myImageFileNames;
+    }
+
+    /**
+     * Takes a snapshot of a list of vehicles that has no roster of its own.
+     *
+     * @param theTimestep the time step
+     * @param theLight the state of the lights
+     * @param theVehicles the vehicles
+     * @return the snapshot
+     */
+    public static TickSnapshot of(final long theTimestep, final Light theLight,
+                                  final List<? extends Vehicle> theVehicles) {
+        return new TickSnapshot(theTimestep, theLight, theVehicles, new Roster(theVehicles));
+    }
+
+    /**
+     * Takes a snapshot of the vehicles listed in a roster.
+     *
+     * @param theTimestep the time step
+     * @param theLight the state of the lights
+     * @param theVehicles the vehicles, in the same order as theRoster
+     * @param theRoster the roster of the vehicles
+     * @return the snapshot
+     */
+    static TickSnapshot of(final long theTimestep, final Light theLight,
+                           final List<? extends Vehicle> theVehicles, final Roster theRoster) {
+        return new TickSnapshot(theTimestep, theLight, theVehicles, theRoster);
+    }
+
+    /**
+     * Returns the time step this snapshot was taken at.
+     *
+     * @return the time step
+     */
+    public long getTimestep() {
+        return myTimestep;
+    }
+
+    /**
+     * Returns the state of the lights.
+     *
+     * @return the light
+     */
+    public Light getLight() {
+        return myLight;
+    }
+
+    /**
+     * Returns the number of vehicles.
+     *
+     * @return the number of vehicles
+     */
+    public int size() {
+        return myDirections.length;
+    }
+
+    /**
+     * Returns the x coordinate of a vehicle.
+     *
+     * @param theIndex the vehicle
+     * @return the x coordinate
+     */
+    public int getX(final int theIndex) {
+        return myPositions[2 * theIndex];
+    }
+
+    /**
+     * Returns the y coordinate of a vehicle.
+     *
+     * @param theIndex the vehicle
+     * @return the y coordinate
+     */
+    public int getY(final int theIndex) {
+        return myPositions[2 * theIndex + 1];
+    }
+
+    /**
+     * Returns the direction of a vehicle.
+     *
+     * @param theIndex the vehicle
+     * @return the direction
+     */
+    public Direction getDirection(final int theIndex) {
+        return DIRECTIONS[myDirections[theIndex]];
+    }
+
+    /**
+     * Returns whether a vehicle is alive.
+     *
+     * @param theIndex the vehicle
+     * @return true if the vehicle is alive
+     */
+    public boolean isAlive(final int theIndex) {
+        return (myDead[theIndex / WORD_BITS] & 1L << theIndex) == 0;
+    }
+
+    /**
+     * Returns the class of a vehicle.
+     *
+     * @param theIndex the vehicle
+     * @return the class of the vehicle
+     */
+    public Class<? extends Vehicle> getType(final int theIndex) {
+        return myRoster.myTypes[myRoster.myTypeIndex[theIndex]];
+    }
+
+    /**
+     * Returns the label of a vehicle, its toString() when the roster was made.
+     *
+     * @param theIndex the vehicle
+     * @return the label
+     */
+    public String getLabel(final int theIndex) {
+        return myRoster.myLabels[theIndex];
+    }
+
+    /**
+     * Returns the image file name of a vehicle in its state in this snapshot.
+     *
+     * @param theIndex the vehicle
+     * @return the image file name
+     */
+    public String getImageFileName(final int theIndex) {
+        return myImageFileNames[myRoster.myTypeIndex[theIndex]][isAlive(theIndex) ? 0 : 1];
+    }
+
+    /**
+     * The facts about a list of vehicles that stay the same from tick to tick.
+     * Only the thread that builds snapshots may use a roster; the image file name
+     * table is replaced, never written, when a new name is learned, so snapshots
+     * already published keep a table that does not change.
+     */
+    static final class Roster {
+
+        /**
+         * The distinct vehicle classes.
+         */
+        private final Class<? extends Vehicle>[] myTypes;
+
+        /**
+         * The index into myTypes of each vehicle's class.
+         */
+        private final byte[] myTypeIndex;
+
+        /**
+         * The label of each vehicle.
+         */
+        private final String[] myLabels;
+
+        /**
+         * The image file names of each class, alive then dead, null until seen.
+         */
+        private String[][] myImageFileNames;
+
+        /**
+         * Makes a roster of the given vehicles.
+         *
+         * @param theVehicles the vehicles
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Roster(final List<? extends Vehicle> theVehicles) {
+            final List<Class<? extends Vehicle>> types = new ArrayList<>();
+            myTypeIndex = new byte[theVehicles.size()];
+            myLabels = new String[theVehicles.size()];
+            for (int i = 0; i < theVehicles.size(); i++) {
+                final Vehicle v = theVehicles.get(i);
+                int index = types.indexOf(v.getClass());
+                if (index < 0) {
+                    index = types.size();
+                    types.add(v.getClass());
+                }
+                myTypeIndex[i] = (byte) index;
+                myLabels[i] = v.toString();
+            }
+            myTypes = types.toArray(new Class[0]);
+            myImageFileNames = new String[myTypes.length][2];
+        }
+
+        /**
+         * Records the image file name of a vehicle's class in the vehicle's current
+         * state, if it is not known yet.
+         *
+         * @param theIndex the vehicle
+         * @param theVehicle the vehicle
+         */
+        private void learnImageFileName(final int theIndex, final Vehicle theVehicle) {
+            final int type = myTypeIndex[theIndex];
+            final int state = theVehicle.isAlive() ? 0 : 1;
+            if (myImageFileNames[type][state] == null) {
+                final String[][] names = myImageFileNames.clone();
+                names[type] = names[type].clone();
+                names[type][state] = theVehicle.getImageFileName();
+                myImageFileNames = names;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import edu.uw.tcss.model.Direction;
+
+/**
+ * The vehicles whose position, direction or alive state changed between two
+ * snapshots, with their state before and after. Vehicles waiting at a red light or
+ * lying dead do not appear, so a delta is usually a small fraction of a snapshot.
+ * A delta is immutable once built.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 2
+ */
+public final class VehicleDelta {
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The time step of the later snapshot.
+     */
+    private final long myTimestep;
+
+    /**
+     * The index of each changed vehicle, in increasing order.
+     */
+    private final int[] myIndices;
+
+    /**
+     * The x and y coordinate of each changed vehicle before the change, interleaved.
+     */
+    private final int[] myOldPositions;
+
+    /**
+     * The x and y coordinate of each changed vehicle after the change, interleaved.
+     */
+    private final int[] myPositions;
+
+    /**
+     * The ordinal of the direction of each changed vehicle after the change.
+     */
+    private final byte[] myDirections;
+
+    /**
+     * Whether each changed vehicle is alive after the change.
+     */
+    private final boolean[] myAlive;
+
+    /**
+     * Creates a delta with room for the given number of changed vehicles.
+     *
+     * @param theTimestep the time step of the later snapshot
+     * @param theSize the number of changed vehicles
+     */
+    private VehicleDelta(final long theTimestep, final int theSize) {
+        myTimestep = theTimestep;
+        myIndices = new int[theSize];
+        myOldPositions = new int[theSize * 2];
+        myPositions = new int[theSize * 2];
+        myDirections = new byte[theSize];
+        myAlive = new boolean[theSize];
+    }
+
+    /**
+     * Finds the vehicles that changed from one snapshot to another.
+     *
+     * @param theBefore the earlier snapshot
+     * @param theAfter the later snapshot of the same vehicles
+     * @return the delta
+     * @throws IllegalArgumentException if the snapshots hold different numbers of
+     *         vehicles
+     */
+    public static VehicleDelta between(final TickSnapshot theBefore,
+                                       final TickSnapshot theAfter) {
+        if (theBefore.size() != theAfter.size()) {
+            throw new IllegalArgumentException("Snapshots of " + theBefore.size() + " and "
+                                               + theAfter.size() + " vehicles");
+        }
+        int changed = 0;
+        for (int i = 0; i < theAfter.size(); i++) {
+            if (isChanged(theBefore, theAfter, i)) {
+                changed++;
+            }
+        }
+
+        final VehicleDelta result = new VehicleDelta(theAfter.getTimestep(), changed);
+        int k = 0;
+        for (int i = 0; k < changed; i++) {
+            if (isChanged(theBefore, theAfter, i)) {
+                result.myIndices[k] = i;
+                result.myOldPositions[2 * k] = theBefore.getX(i);
+                result.myOldPositions[2 * k + 1] = theBefore.getY(i);
+                result.myPositions[2 * k] = theAfter.getX(i);
+                result.myPositions[2 * k + 1] = theAfter.getY(i);
+                result.myDirections[k] = (byte) theAfter.getDirection(i).ordinal();
+                result.myAlive[k] = theAfter.isAlive(i);
+                k++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time step of the later snapshot.
+     *
+     * @return the time step
+     */
+    public long getTimestep() {
+        return myTimestep;
+    }
+
+    /**
+     * Returns the number of changed vehicles.
+     *
+     * @return the number of changed vehicles
+     */
+    public int size() {
+        return myIndices.length;
+    }
+
+    /**
+     * Returns the snapshot index of a changed vehicle.
+     *
+     * @param theChange which change, from 0 to size() - 1
+     * @return the index of the vehicle
+     */
+    public int getIndex(final int theChange) {
+        return myIndices[theChange];
+    }
+
+    /**
+     * Returns the x coordinate of a changed vehicle before the change.
+     *
+     * @param theChange which change
+     * @return the old x coordinate
+     */
+    public int getOldX(final int theChange) {
+        return myOldPositions[2 * theChange];
+    }
+
+    /**
+     * Returns the y coordinate of a changed vehicle before the change.
+     *
+     * @param theChange which change
+     * @return the old y coordinate
+     */
+    public int getOldY(final int theChange) {
+        return myOldPositions[2 * theChange + 1];
+    }
+
+    /**
+     * Returns the x coordinate of a changed vehicle after the change.
+     *
+     * @param theChange which change
+     * @return the new x coordinate
+     */
+    public int getX(final int theChange) {
+        return myPositions[2 * theChange];
+    }
+
+    /**
+     * Returns the y coordinate of a changed vehicle after the change.
+     *
+     * @param theChange which change
+     * @return the new y coordinate
+     */
+    public int getY(final int theChange) {
+        return myPositions[2 * theChange + 1];
+    }
+
+    /**
+     * Returns the direction of a changed vehicle after the change.
+     *
+     * @param theChange which change
+     * @return the new direction
+     */
+    public Direction getDirection(final int theChange) {
+        return DIRECTIONS[myDirections[theChange]];
+    }
+
+    /**
+     * Returns whether a changed vehicle is alive after the change.
+     *
+     * @param theChange which change
+     * @return true if the vehicle is alive
+     */
+    public boolean isAlive(final int theChange) {
+        return myAlive[theChange];
+    }
+
+    /*
+        Whether a vehicle's position, direction or alive state differs
+     */
+    private static boolean isChanged(final TickSnapshot theBefore, final TickSnapshot theAfter,
+                                     final int theIndex) {
+        return theBefore.getX(theIndex) != theAfter.getX(theIndex)
+               || theBefore.getY(theIndex) != theAfter.getY(theIndex)
+               || theBefore.getDirection(theIndex) != theAfter.getDirection(theIndex)
+               || theBefore.isAlive(theIndex) != theAfter.isAlive(theIndex);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.logic;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A vehicle's source of randomness: the SplitMix64 algorithm of SplittableRandom,
+ * giving the same values from the same seed, but with a state of two longs that
+ * can be read and set, so a checkpoint can save it and a restored run can carry on
+ * drawing exactly where the saved one was.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+final class VehicleRandom implements RandomGenerator {
+
+    /**
+     * The gamma of a generator created from a seed alone.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The seed, advanced by the gamma on every draw.
+     */
+    private long mySeed;
+
+    /**
+     * The odd amount the seed advances by.
+     */
+    private long myGamma;
+
+    /**
+     * Creates a generator from a seed, as new SplittableRandom(theSeed) would.
+     *
+     * @param theSeed the seed
+     */
+    VehicleRandom(final long theSeed) {
+        this(theSeed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Creates a generator with the given state.
+     *
+     * @param theSeed the seed
+     * @param theGamma the gamma; it must be odd
+     */
+    VehicleRandom(final long theSeed, final long theGamma) {
+        mySeed = theSeed;
+        myGamma = theGamma;
+    }
+
+    /**
+     * Creates a new generator from this one, as SplittableRandom.split() would.
+     *
+     * @return the new generator
+     */
+    VehicleRandom split() {
+        return new VehicleRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Returns the seed part of the state.
+     *
+     * @return the seed
+     */
+    long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Returns the gamma part of the state.
+     *
+     * @return the gamma
+     */
+    long getGamma() {
+        return myGamma;
+    }
+
+    /**
+     * Puts the generator into a state read earlier from getSeed and getGamma.
+     *
+     * @param theSeed the seed
+     * @param theGamma the gamma; it must be odd
+     */
+    void setState(final long theSeed, final long theGamma) {
+        mySeed = theSeed;
+        myGamma = theGamma;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = nextSeed();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt() {
+        long z = nextSeed();
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    /**
+     * Advances the seed.
+     *
+     * @return the new seed
+     */
+    private long nextSeed() {
+        mySeed += myGamma;
+        return mySeed;
+    }
+
+    /**
+     * Turns a value into an odd gamma with enough bit transitions to mix well.
+     *
+     * @param theValue the value
+     * @return the gamma
+     */
+    private static long mixGamma(final long theValue) {
+        long z = theValue;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        final int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
@@ -1,5 +1,7 @@
 package edu.uw.tcss.model;
 
+import java.util.random.RandomGenerator;
+
 /**
  * This is an abstract class that manages shared behavior for
  * vehicles.
@@ -10,133 +12,222 @@ package edu.uw.tcss.model;
 public abstract class AbstractVehicle implements Vehicle {
 
     /**
-     * This keeps track of if the vehicle is alive or not.
+     * The alive and dead image file names of each vehicle class, built once per class.
      */
-    private int myLife;
+    private static final ClassValue<String[]> IMAGE_FILE_NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(final Class<?> theType) {
+            final String name = theType.getSimpleName().toLowerCase();
+            return new String[] {name + ".gif", name + "_dead.gif"};
+        }
+    };
 
     /**
-     * How long the vehicle should remain dead, in update cycles.
+     * The store holding this vehicle's state.
      */
-    private final int myDeathTime;
+    private VehicleStore myStore;
 
     /**
-     * The direction the vehicle is travelling.
+     * This vehicle's slot in the store.
      */
-    private Direction myDirection;
+    private int myIndex;
 
-    /**
-     * The x coordinate of the vehicle.
-     */
-    private int myX;
 
     /**
-     * The y coordinate of the vehicle.
+     * Creates the vehicle with its starting state, in a store of its own.
+     *
+     * @param theX the starting x-coordinate of the vehicle
+     * @param theY the starting y-coordinate of the vehicle
+     * @param theDirection the starting direction the vehicle is facing
+     * @param theDeathTime how long the vehicle remains dead after a collision
      */
-    private int myY;
-
-
-    private final Starting myStartingState;
-
+    public AbstractVehicle(final int theX, final int theY, final Direction theDirection,
+                           final int theDeathTime) {
+        this(new VehicleStore(1), theX, theY, theDirection, theDeathTime);
+    }
 
     /**
-     * Creates the vehicle with its starting state.
+     * Creates the vehicle with its starting state in a new slot of a store, as a map
+     * loader does, so a map of many vehicles shares one store from the start.
      *
+     * @param theStore the store
      * @param theX the starting x-coordinate of the vehicle
      * @param theY the starting y-coordinate of the vehicle
      * @param theDirection the starting direction the vehicle is facing
      * @param theDeathTime how long the vehicle remains dead after a collision
+     * @throws IllegalArgumentException if the store belongs to a simulation
      */
-    public AbstractVehicle(final int theX, final int theY, final Direction theDirection,
-                           final int theDeathTime) {
+    protected AbstractVehicle(final VehicleStore theStore, final int theX, final int theY,
+                              final Direction theDirection, final int theDeathTime) {
         super();
-        myX = theX;
-        myY = theY;
-        myDeathTime = theDeathTime;
-        myLife = 0;
-        myDirection = theDirection;
-        myStartingState = new Starting(theX, theY, theDirection);
+        if (theStore.isClaimed()) {
+            throw new IllegalArgumentException(
+                "Cannot add a vehicle to a store that belongs to a simulation");
+        }
+        myStore = theStore;
+        myIndex = theStore.add(getClass(), theX, theY, theDirection, theDeathTime);
     }
 
 
     @Override
     public void collide(final Vehicle theOther) {
-        if (myLife == 0 && myDeathTime > theOther.getDeathTime()) {
-            myLife = myDeathTime;
-        } //myLife < 0 when it's alive;
+        if (isAlive() && getDeathTime() > theOther.getDeathTime()) {
+            myStore.setLife(myIndex, getDeathTime());
+        } //life > 0 when it's dead;
         // they only die (in the current implementation) when their death times are
         // less than the other vehicle
     }
 
     @Override
     public String getImageFileName() {
+        return getImageFileName(getClass(), isAlive());
+    }
+
+    /**
+     * Returns the image file name of a vehicle class in the given state, so images
+     * can be loaded before any vehicle of the class is drawn.
+     *
+     * @param theType the vehicle class
+     * @param theAlive whether the vehicle is alive
+     * @return the image file name
+     */
+    public static String getImageFileName(final Class<? extends Vehicle> theType,
+                                          final boolean theAlive) {
+        final String[] names = IMAGE_FILE_NAMES.get(theType);
         final String toGive;
-        if (myLife == 0) {
-            toGive = this.getClass().getSimpleName().toLowerCase() + ".gif";
+        if (theAlive) {
+            toGive = names[0];
         } else {
-            toGive = this.getClass().getSimpleName().toLowerCase() + "_dead.gif";
+            toGive = names[1];
         }
         return toGive;
     }
 
     @Override
     public int getDeathTime() {
-        return myDeathTime;
+        return myStore.getDeathTime(myIndex);
     }
 
     @Override
     public Direction getDirection() {
-        return myDirection;
+        return myStore.getDirection(myIndex);
     }
 
     @Override
     public int getX() {
-        return myX;
+        return myStore.getX(myIndex);
     }
 
     @Override
     public int getY() {
-        return myY;
+        return myStore.getY(myIndex);
     }
 
     @Override
     public boolean isAlive() {
-        return myLife == 0;
+        return myStore.isAlive(myIndex);
     }
 
     @Override
     public void poke() {
-        if (myLife > 0) {
-            myLife--;
+        final int life = myStore.getLife(myIndex);
+        if (life > 0) {
+            myStore.setLife(myIndex, life - 1);
         }
-        if (myLife == 0) {
-            myDirection = Direction.random();
+        if (isAlive()) {
+            setDirection(nextRandomDirection());
         }
     }
 
     @Override
     public void reset() {
-        myX = myStartingState.myX;
-        myY = myStartingState.myY;
-        myDirection = myStartingState.myDirection;
-        myLife = 0; //turns it back to alive, regardless of what it was previously
+        myStore.reset(myIndex); //turns it back to alive, regardless of what it was previously
     }
 
     @Override
     public void setDirection(final Direction theDirection) {
-        myDirection = theDirection;
+        myStore.setDirection(myIndex, theDirection);
     }
 
     @Override
     public void setX(final int theX) {
-        myX = theX;
+        myStore.setX(myIndex, theX);
     }
 
     @Override
     public void setY(final int theY) {
-        myY = theY;
+        myStore.setY(myIndex, theY);
+    }
+
+
+
+    @Override
+    public void setRandom(final RandomGenerator theRandom) {
+        myStore.setRandom(myIndex, theRandom);
     }
 
+    /**
+     * Returns a random direction drawn from this vehicle's source of randomness.
+     *
+     * @return a random direction
+     */
+    protected Direction nextRandomDirection() {
+        return myStore.randomDirection(myIndex);
+    }
+
+    /**
+     * Returns how many more updates this vehicle waits where it is. The count is 
+     * kept in the store, so it is saved and restored with the rest of the state.
+     *
+     * @return the remaining updates, 0 when the vehicle is not waiting
+     */
+    protected final int getWaitCycle() {
+        return myStore.getWait(myIndex);
+    }
+
+    /**
+     * Sets how many more updates this vehicle waits where it is.
+     *
+     * @param theWaitCycle the remaining updates, 0 when the vehicle is not waiting
+     */
+    protected final void setWaitCycle(final int theWaitCycle) {
+        myStore.setWait(myIndex, theWaitCycle);
+    }
 
+    /**
+     * Returns the store holding this vehicle's state.
+     *
+     * @return the store
+     */
+    VehicleStore getStore() {
+        return myStore;
+    }
+
+    /**
+     * Returns this vehicle's slot in the store.
+     *
+     * @return the slot
+     */
+    int getIndex() {
+        return myIndex;
+    }
 
-    private record Starting(int myX, int myY, Direction myDirection) { }
+    /**
+     * Copies this vehicle's state into a slot of a simulation's store, and makes 
+     * the vehicle a view over that slot.
+     *
+     * @param theStore the new store
+     * @param theIndex the slot in the new store
+     * @throws IllegalArgumentException if this vehicle is already in a claimed store
+     */
+    void moveTo(final VehicleStore theStore, final int theIndex) {
+        if (myStore.isClaimed()) {
+            throw new IllegalArgumentException(
+                "A " + getClass().getSimpleName() + " at " + getX() + ", " + getY()
+                + " is already in another simulation's store");
+        }
+        theStore.copyFrom(theIndex, myStore, myIndex);
+        myStore = theStore;
+        myIndex = theIndex;
+    }
 }
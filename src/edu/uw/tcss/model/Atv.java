@@ -26,6 +26,19 @@ public class Atv extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the ATV with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the ATV in
+     * @param theX the starting x-coordinate of the ATV
+     * @param theY the starting y-coordinate of the ATV
+     * @param theDirection the starting direction the ATV is facing
+     */
+    public Atv(final VehicleStore theStore, final int theX, final int theY,
+               final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
     /**
      * Returns the direction this object would like to move, based on the given
      * map of the neighboring terrain.
@@ -37,7 +50,7 @@ public class Atv extends AbstractVehicle {
      */
     @Override
     public Direction chooseDirection(final Map<Direction, Terrain> theNeighbors) {
-        Direction toGive = Direction.random();
+        Direction toGive = nextRandomDirection();
         if (!isAcceptable(theNeighbors.get(toGive), toGive)) {
             //the random direction wasn't valid, so keep looking    ATVs start right
             if (isAcceptable(theNeighbors.get(toGive.right()), toGive.right())) {
@@ -27,6 +27,19 @@ public class Bicycle extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the Bicycle with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the Bicycle in
+     * @param theX the starting x-coordinate of the Bicycle
+     * @param theY the starting y-coordinate of the Bicycle
+     * @param theDirection the starting direction the Bicycle is facing
+     */
+    public Bicycle(final VehicleStore theStore, final int theX, final int theY,
+                   final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
 
     /**
      * Returns the direction this object would like to move, based on the given
@@ -26,6 +26,19 @@ public class Car extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the Car with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the Car in
+     * @param theX the starting x-coordinate of the Car
+     * @param theY the starting y-coordinate of the Car
+     * @param theDirection the starting direction the Car is facing
+     */
+    public Car(final VehicleStore theStore, final int theX, final int theY,
+               final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
     /**
      * Returns the direction this object would like to move, based on the given
      * map of the neighboring terrain.
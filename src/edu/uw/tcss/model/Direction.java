@@ -5,6 +5,7 @@
 package edu.uw.tcss.model;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * An enumeration (and associated functionality) for directions in which a
@@ -44,6 +45,23 @@ public enum Direction {
      */
     private static final Random RANDOM_GENERATOR = new Random();
 
+    /**
+     * The directions in declaration order, which is counter-clockwise.
+     * Cached because values() returns a new array on every call.
+     */
+    private static final Direction[] VALUES = values();
+
+    /**
+     * The directions, indexed by ASCII letter.
+     */
+    private static final Direction[] BY_LETTER = new Direction[128];
+
+    static {
+        for (final Direction direction : VALUES) {
+            BY_LETTER[direction.myLetter] = direction;
+        }
+    }
+
     /**
      * The letter corresponding to a particular value of the enumeration.
      */
@@ -71,14 +89,9 @@ public enum Direction {
      */
     public static Direction valueOf(final char theLetter) {
         Direction result = null;
-
-        for (final Direction direction : Direction.values()) {
-            if (direction.letter() == theLetter) {
-                result = direction;
-                break;
-            }
+        if (theLetter < BY_LETTER.length) {
+            result = BY_LETTER[theLetter];
         }
-
         return result;
     }
 
@@ -99,30 +112,7 @@ public enum Direction {
      *         counter-clockwise by 90 degrees.
      */
     public Direction left() {
-        Direction result = null;
-
-        switch (this) {
-            case NORTH:
-                result = WEST;
-                break;
-
-            case WEST:
-                result = SOUTH;
-                break;
-
-            case SOUTH:
-                result = EAST;
-                break;
-
-            case EAST:
-                result = NORTH;
-                break;
-
-            default:
-                break;
-        }
-
-        return result;
+        return VALUES[(ordinal() + 1) % VALUES.length];
     }
 
     /**
@@ -131,7 +121,17 @@ public enum Direction {
      * @return a random Direction.
      */
     public static Direction random() {
-        return values()[RANDOM_GENERATOR.nextInt(values().length)];
+        return random(RANDOM_GENERATOR);
+    }
+
+    /**
+     * Returns a random Direction drawn from the given generator.
+     * 
+     * @param theRandom The source of randomness.
+     * @return a random Direction.
+     */
+    public static Direction random(final RandomGenerator theRandom) {
+        return VALUES[theRandom.nextInt(VALUES.length)];
     }
 
     /**
@@ -142,30 +142,7 @@ public enum Direction {
      *         90 degrees.
      */
     public Direction right() {
-        Direction result = null;
-
-        switch (this) {
-            case NORTH:
-                result = EAST;
-                break;
-
-            case WEST:
-                result = NORTH;
-                break;
-
-            case SOUTH:
-                result = WEST;
-                break;
-
-            case EAST:
-                result = SOUTH;
-                break;
-
-            default:
-                break;
-        }
-
-        return result;
+        return VALUES[(ordinal() + VALUES.length - 1) % VALUES.length];
     }
 
     /**
@@ -174,7 +151,7 @@ public enum Direction {
      * @return the direction opposite this one.
      */
     public Direction reverse() {
-        return left().left();
+        return VALUES[(ordinal() + VALUES.length / 2) % VALUES.length];
     }
 
     /**
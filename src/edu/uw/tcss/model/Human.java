@@ -28,6 +28,19 @@ public class Human extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the human with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the human in
+     * @param theX the starting x-coordinate of the human
+     * @param theY the starting y-coordinate of the human
+     * @param theDirection the starting direction the human is facing
+     */
+    public Human(final VehicleStore theStore, final int theX, final int theY,
+                 final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
     /**
      * Returns the direction this object would like to move, based on the given
      * map of the neighboring terrain.
@@ -88,7 +101,7 @@ public class Human extends AbstractVehicle {
     private Direction randomDirection(final Map<Direction, Terrain> theNeighbors) {
         Direction toGive = onlyOneValidDirection(theNeighbors);
         if (toGive == null) { //there is more than one random direction, continue randomizing
-            toGive = Direction.random();
+            toGive = nextRandomDirection();
             if (!isAcceptableRandom(theNeighbors, toGive)) {
                 //first try didn't work, try another direction. Humans start left.
                 if (isAcceptableRandom(theNeighbors, toGive.left())) {
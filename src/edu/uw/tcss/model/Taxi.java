@@ -21,12 +21,6 @@ public class Taxi extends AbstractVehicle {
      */
     private static final int WAIT_TIME = 3;
 
-    /**
-     * How long the taxi will wait at a crosswalk
-     */
-    private int myWaitCycle;
-
-
     /**
      * Creates the Taxi with its starting state.
      *
@@ -38,6 +32,19 @@ public class Taxi extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the Taxi with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the Taxi in
+     * @param theX the starting x-coordinate of the Taxi
+     * @param theY the starting y-coordinate of the Taxi
+     * @param theDirection the starting direction the Taxi is facing
+     */
+    public Taxi(final VehicleStore theStore, final int theX, final int theY,
+                final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
 
     /**
      * Returns the direction this object would like to move, based on the given
@@ -77,20 +84,21 @@ public class Taxi extends AbstractVehicle {
         boolean toGive = false;
         //crosswalk+red light will be handled uniquely.
         if (theTerrain == Terrain.CROSSWALK && theLight == Light.RED) {
-            if (myWaitCycle > 0) {
-                myWaitCycle--;
+            final int waitCycle = getWaitCycle();
+            if (waitCycle > 0) {
+                setWaitCycle(waitCycle - 1);
 
-                if (myWaitCycle == 0) {
+                if (waitCycle == 1) {
                     toGive = true;
                 }
             } else {
-                myWaitCycle = WAIT_TIME;
+                setWaitCycle(WAIT_TIME);
             }
         } else {
             toGive = theTerrain == Terrain.STREET
                     || (theTerrain == Terrain.CROSSWALK || theTerrain == Terrain.LIGHT)
                     && (theLight == Light.YELLOW || theLight == Light.GREEN);
-            myWaitCycle = 0;
+            setWaitCycle(0);
         }
         return toGive;
     }
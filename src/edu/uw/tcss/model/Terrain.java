@@ -4,6 +4,8 @@
 
 package edu.uw.tcss.model;
 
+import java.util.Arrays;
+
 /**
  * An enumeration (and associated functionality) for types of terrain that may
  * appear on the map.
@@ -45,6 +47,18 @@ public enum Terrain {
      */
     CROSSWALK('#');
 
+    /**
+     * The terrains, indexed by ASCII letter. Letters with no Terrain map to GRASS.
+     */
+    private static final Terrain[] BY_LETTER = new Terrain[128];
+
+    static {
+        Arrays.fill(BY_LETTER, GRASS);
+        for (final Terrain terrain : values()) {
+            BY_LETTER[terrain.myLetter] = terrain;
+        }
+    }
+
     /**
      * The character corresponding to a particular value of the enumeration.
      */
@@ -72,17 +86,21 @@ public enum Terrain {
      */
     public static Terrain valueOf(final char theLetter) {
         Terrain result = GRASS;
-
-        for (final Terrain terrain : Terrain.values()) {
-            if (terrain.myLetter == theLetter) {
-                result = terrain;
-                break;
-            }
+        if (theLetter < BY_LETTER.length) {
+            result = BY_LETTER[theLetter];
         }
-
         return result;
     }
 
+    /**
+     * Returns the letter corresponding to this Terrain.
+     * 
+     * @return the letter corresponding to this Terrain.
+     */
+    public char letter() {
+        return myLetter;
+    }
+
     /**
      * Returns a String representation of this Terrain, such as "WALL (X)".
      * 
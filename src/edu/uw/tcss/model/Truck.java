@@ -27,6 +27,19 @@ public class Truck extends AbstractVehicle {
         super(theX, theY, theDirection, DEATH_TIME);
     }
 
+    /**
+     * Creates the Truck with its starting state in a new slot of a store.
+     *
+     * @param theStore the store to create the Truck in
+     * @param theX the starting x-coordinate of the Truck
+     * @param theY the starting y-coordinate of the Truck
+     * @param theDirection the starting direction the Truck is facing
+     */
+    public Truck(final VehicleStore theStore, final int theX, final int theY,
+                 final Direction theDirection) {
+        super(theStore, theX, theY, theDirection, DEATH_TIME);
+    }
+
     /**
      * Returns the direction this object would like to move, based on the given
      * map of the neighboring terrain.
@@ -40,7 +53,7 @@ public class Truck extends AbstractVehicle {
     public Direction chooseDirection(final Map<Direction, Terrain> theNeighbors) {
         Direction toGive = onlyOneValidDirection(theNeighbors);
         if (toGive == null) {
-            toGive = Direction.random();
+            toGive = nextRandomDirection();
             if (!isAcceptable(theNeighbors.get(toGive), toGive)) {
                 //the direction is not a good choice for random, so keep checking
                 //trucks will start by checking to the left
@@ -5,6 +5,7 @@
 package edu.uw.tcss.model;
 
 import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /**
  * An interface for objects that can move in four directions.
@@ -119,5 +120,15 @@ public interface Vehicle {
      */
     void setY(int theY);
 
+    /**
+     * Sets the source of randomness this object uses to make random choices.
+     * Vehicles that make no random choices may ignore it.
+     * 
+     * @param theRandom The source of randomness.
+     */
+    default void setRandom(final RandomGenerator theRandom) {
+        // no random choices by default
+    }
+
 } // end of interface Vehicle
 
@@ -0,0 +1,599 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A struct-of-arrays store for the state of many vehicles. Each vehicle occupies
+ * one slot, and its position, life, death time, direction and type are kept in 
+ * parallel primitive arrays instead of in the vehicle object.
+ *
+ * <p>Every AbstractVehicle is a view over one slot of a store, and holds nothing
+ * but the store and its index. A map loader creates all of its vehicles in one 
+ * store, which a simulation then claims with {@link #of(List)}, so iterating the
+ * simulation walks a few dense arrays. A vehicle created on its own gets a store 
+ * of one slot, and is moved into a slot of the simulation's store when the 
+ * simulation is built. A vehicle can be in only one claimed store. Vehicles that do
+ * not extend AbstractVehicle keep their own state, and their slots only hold a 
+ * copy of it.
+ *
+ * <p>Each slot also holds the state of the vehicle's source of randomness: the 
+ * SplitMix64 algorithm of SplittableRandom, which draws the same values from the 
+ * same state. A slot that has not been seeded draws from the generator it was 
+ * given, or from Direction's shared one.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+public final class VehicleStore {
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The x coordinate of each vehicle.
+     */
+    private int[] myX;
+
+    /**
+     * The y coordinate of each vehicle.
+     */
+    private int[] myY;
+
+    /**
+     * How many more updates each vehicle stays dead; 0 when it is alive.
+     */
+    private int[] myLife;
+
+    /**
+     * How long each vehicle stays dead after a collision, in update cycles.
+     */
+    private int[] myDeathTime;
+
+    /**
+     * How many more updates each vehicle waits where it is, for vehicles that wait, 
+     * such as a taxi at a red crosswalk.
+     */
+    private int[] myWait;
+
+    /**
+     * The ordinal of the direction each vehicle is travelling.
+     */
+    private byte[] myDirection;
+
+    /**
+     * The index into myTypes of each vehicle's class.
+     */
+    private byte[] myType;
+
+    /**
+     * The starting x coordinate of each vehicle.
+     */
+    private int[] myStartX;
+
+    /**
+     * The starting y coordinate of each vehicle.
+     */
+    private int[] myStartY;
+
+    /**
+     * The ordinal of the starting direction of each vehicle.
+     */
+    private byte[] myStartDirection;
+
+    /**
+     * The seed of each vehicle's source of randomness, advanced by its gamma on
+     * every draw.
+     */
+    private long[] myRandomSeed;
+
+    /**
+     * The odd gamma of each vehicle's source of randomness, or 0 if the slot has
+     * not been seeded.
+     */
+    private long[] myRandomGamma;
+
+    /**
+     * The generator each unseeded vehicle draws from, or null until one is given.
+     */
+    private RandomGenerator[] myRandoms;
+
+    /**
+     * The distinct vehicle classes in this store.
+     */
+    private final List<Class<? extends Vehicle>> myTypes;
+
+    /**
+     * The number of slots in use.
+     */
+    private int myCount;
+
+    /**
+     * Whether this store belongs to a simulation, rather than to a map loader or to
+     * one vehicle on its own.
+     */
+    private boolean myClaimed;
+
+    /**
+     * Creates a store and moves the given vehicles into it, in order.
+     *
+     * @param theVehicles the vehicles
+     * @throws IllegalArgumentException if an AbstractVehicle is already in another 
+     *         claimed store, or appears in the list twice
+     */
+    public VehicleStore(final List<? extends Vehicle> theVehicles) {
+        this(theVehicles.size(), true);
+        myCount = theVehicles.size();
+        for (int i = 0; i < theVehicles.size(); i++) {
+            final Vehicle v = theVehicles.get(i);
+            if (v instanceof AbstractVehicle) {
+                ((AbstractVehicle) v).moveTo(this, i);
+            } else {
+                set(i, v.getClass(), v.getX(), v.getY(), v.getDirection(),
+                    v.getDeathTime());
+                myLife[i] = v.isAlive() ? 0 : 1;
+            }
+        }
+    }
+
+    /**
+     * Creates an empty store that vehicles can be created in, as a map loader does.
+     * The store grows as vehicles are added.
+     *
+     * @param theCapacity the number of slots to start with
+     */
+    public VehicleStore(final int theCapacity) {
+        this(theCapacity, false);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param theCapacity the number of slots to start with
+     * @param theClaimed whether the store belongs to a simulation
+     */
+    private VehicleStore(final int theCapacity, final boolean theClaimed) {
+        myX = new int[theCapacity];
+        myY = new int[theCapacity];
+        myLife = new int[theCapacity];
+        myDeathTime = new int[theCapacity];
+        myWait = new int[theCapacity];
+        myDirection = new byte[theCapacity];
+        myType = new byte[theCapacity];
+        myStartX = new int[theCapacity];
+        myStartY = new int[theCapacity];
+        myStartDirection = new byte[theCapacity];
+        myRandomSeed = new long[theCapacity];
+        myRandomGamma = new long[theCapacity];
+        myTypes = new ArrayList<>();
+        myClaimed = theClaimed;
+    }
+
+    /**
+     * Returns a store for a simulation of the given vehicles. If the vehicles are 
+     * exactly the vehicles of one unclaimed store, in slot order, as a map loader 
+     * creates them, that store is claimed and returned without copying anything. 
+     * Otherwise the vehicles are moved into a new store.
+     *
+     * @param theVehicles the vehicles
+     * @return the store holding the vehicles, in order
+     * @throws IllegalArgumentException if an AbstractVehicle is already in another 
+     *         claimed store, or appears in the list twice
+     */
+    public static VehicleStore of(final List<? extends Vehicle> theVehicles) {
+        VehicleStore result = null;
+        if (!theVehicles.isEmpty() 
+            && theVehicles.get(0) instanceof AbstractVehicle first) {
+            result = first.getStore();
+        }
+        if (result == null || result.myClaimed || result.myCount != theVehicles.size()) {
+            result = new VehicleStore(theVehicles);
+        } else {
+            for (int i = 0; i < theVehicles.size(); i++) {
+                if (!(theVehicles.get(i) instanceof AbstractVehicle v)
+                    || v.getStore() != result || v.getIndex() != i) {
+                    result = new VehicleStore(theVehicles);
+                    break;
+                }
+            }
+            result.myClaimed = true;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of slots in this store.
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return myCount;
+    }
+
+    /**
+     * Returns the x coordinate of a vehicle.
+     *
+     * @param theIndex the slot
+     * @return the x coordinate
+     */
+    public int getX(final int theIndex) {
+        return myX[theIndex];
+    }
+
+    /**
+     * Returns the y coordinate of a vehicle.
+     *
+     * @param theIndex the slot
+     * @return the y coordinate
+     */
+    public int getY(final int theIndex) {
+        return myY[theIndex];
+    }
+
+    /**
+     * Returns the direction of a vehicle.
+     *
+     * @param theIndex the slot
+     * @return the direction
+     */
+    public Direction getDirection(final int theIndex) {
+        return DIRECTIONS[myDirection[theIndex]];
+    }
+
+    /**
+     * Returns how many more updates a vehicle stays dead.
+     *
+     * @param theIndex the slot
+     * @return the remaining updates, 0 when the vehicle is alive
+     */
+    public int getLife(final int theIndex) {
+        return myLife[theIndex];
+    }
+
+    /**
+     * Returns whether a vehicle is alive.
+     *
+     * @param theIndex the slot
+     * @return true if the vehicle is alive
+     */
+    public boolean isAlive(final int theIndex) {
+        return myLife[theIndex] == 0;
+    }
+
+    /**
+     * Returns how many more updates a vehicle waits where it is.
+     *
+     * @param theIndex the slot
+     * @return the remaining updates, 0 when the vehicle is not waiting
+     */
+    public int getWait(final int theIndex) {
+        return myWait[theIndex];
+    }
+
+    /**
+     * Puts a vehicle back into a state it had earlier, such as one saved in a 
+     * checkpoint. Only changes the vehicle itself if it extends AbstractVehicle.
+     *
+     * @param theIndex the slot
+     * @param theX the x coordinate
+     * @param theY the y coordinate
+     * @param theDirection the direction
+     * @param theLife the remaining updates the vehicle stays dead
+     * @param theWait the remaining updates the vehicle waits
+     */
+    public void restore(final int theIndex, final int theX, final int theY,
+                        final Direction theDirection, final int theLife, final int theWait) {
+        myX[theIndex] = theX;
+        myY[theIndex] = theY;
+        myDirection[theIndex] = (byte) theDirection.ordinal();
+        myLife[theIndex] = theLife;
+        myWait[theIndex] = theWait;
+    }
+
+    /**
+     * Returns how long a vehicle stays dead after a collision.
+     *
+     * @param theIndex the slot
+     * @return the death time
+     */
+    public int getDeathTime(final int theIndex) {
+        return myDeathTime[theIndex];
+    }
+
+    /**
+     * Returns the class of a vehicle.
+     *
+     * @param theIndex the slot
+     * @return the class of the vehicle
+     */
+    public Class<? extends Vehicle> getType(final int theIndex) {
+        return myTypes.get(myType[theIndex]);
+    }
+
+    /**
+     * Gives a vehicle its own source of randomness, in a state such as one split 
+     * from a seed or saved in a checkpoint.
+     *
+     * @param theIndex the slot
+     * @param theSeed the seed
+     * @param theGamma the gamma
+     * @throws IllegalArgumentException if the gamma is even
+     */
+    public void seedRandom(final int theIndex, final long theSeed, final long theGamma) {
+        if ((theGamma & 1L) == 0) {
+            throw new IllegalArgumentException("Even gamma: " + theGamma);
+        }
+        myRandomSeed[theIndex] = theSeed;
+        myRandomGamma[theIndex] = theGamma;
+    }
+
+    /**
+     * Returns the seed part of a vehicle's source of randomness.
+     *
+     * @param theIndex the slot
+     * @return the seed
+     */
+    public long getRandomSeed(final int theIndex) {
+        return myRandomSeed[theIndex];
+    }
+
+    /**
+     * Returns the gamma part of a vehicle's source of randomness.
+     *
+     * @param theIndex the slot
+     * @return the gamma, or 0 if the vehicle has not been seeded
+     */
+    public long getRandomGamma(final int theIndex) {
+        return myRandomGamma[theIndex];
+    }
+
+    /**
+     * Adds a slot holding a vehicle's starting state, growing the store if it is
+     * full.
+     *
+     * @param theType the class of the vehicle
+     * @param theX the starting x coordinate
+     * @param theY the starting y coordinate
+     * @param theDirection the starting direction
+     * @param theDeathTime how long the vehicle stays dead after a collision
+     * @return the new slot
+     */
+    int add(final Class<? extends Vehicle> theType, final int theX, final int theY,
+            final Direction theDirection, final int theDeathTime) {
+        if (myCount == myX.length) {
+            grow(Math.max(1, 2 * myCount));
+        }
+        set(myCount, theType, theX, theY, theDirection, theDeathTime);
+        return myCount++;
+    }
+
+    /**
+     * Fills a slot with a vehicle's starting state.
+     *
+     * @param theIndex the slot
+     * @param theType the class of the vehicle
+     * @param theX the starting x coordinate
+     * @param theY the starting y coordinate
+     * @param theDirection the starting direction
+     * @param theDeathTime how long the vehicle stays dead after a collision
+     */
+    void set(final int theIndex, final Class<? extends Vehicle> theType, final int theX,
+             final int theY, final Direction theDirection, final int theDeathTime) {
+        myType[theIndex] = typeIndex(theType);
+        myX[theIndex] = theX;
+        myY[theIndex] = theY;
+        myStartX[theIndex] = theX;
+        myStartY[theIndex] = theY;
+        myDirection[theIndex] = (byte) theDirection.ordinal();
+        myStartDirection[theIndex] = myDirection[theIndex];
+        myDeathTime[theIndex] = theDeathTime;
+        myLife[theIndex] = 0;
+    }
+
+    /**
+     * Copies a slot from another store into a slot of this one.
+     *
+     * @param theIndex the slot in this store
+     * @param theOther the other store
+     * @param theOtherIndex the slot in the other store
+     */
+    void copyFrom(final int theIndex, final VehicleStore theOther, final int theOtherIndex) {
+        myType[theIndex] = typeIndex(theOther.getType(theOtherIndex));
+        myX[theIndex] = theOther.myX[theOtherIndex];
+        myY[theIndex] = theOther.myY[theOtherIndex];
+        myLife[theIndex] = theOther.myLife[theOtherIndex];
+        myDeathTime[theIndex] = theOther.myDeathTime[theOtherIndex];
+        myWait[theIndex] = theOther.myWait[theOtherIndex];
+        myDirection[theIndex] = theOther.myDirection[theOtherIndex];
+        myStartX[theIndex] = theOther.myStartX[theOtherIndex];
+        myStartY[theIndex] = theOther.myStartY[theOtherIndex];
+        myStartDirection[theIndex] = theOther.myStartDirection[theOtherIndex];
+        myRandomSeed[theIndex] = theOther.myRandomSeed[theOtherIndex];
+        myRandomGamma[theIndex] = theOther.myRandomGamma[theOtherIndex];
+        if (theOther.myRandoms != null) {
+            setRandom(theIndex, theOther.myRandoms[theOtherIndex]);
+        }
+    }
+
+    /**
+     * Returns whether this store belongs to a simulation.
+     *
+     * @return true if this store is claimed
+     */
+    boolean isClaimed() {
+        return myClaimed;
+    }
+
+    /**
+     * Makes a vehicle draw from the given generator instead of its own state.
+     *
+     * @param theIndex the slot
+     * @param theRandom the generator, or null to share Direction's
+     */
+    void setRandom(final int theIndex, final RandomGenerator theRandom) {
+        if (myRandoms == null && theRandom != null) {
+            myRandoms = new RandomGenerator[myX.length];
+        }
+        if (myRandoms != null) {
+            myRandoms[theIndex] = theRandom;
+        }
+        myRandomGamma[theIndex] = 0;
+    }
+
+    /**
+     * Returns a random direction drawn from a vehicle's source of randomness.
+     *
+     * @param theIndex the slot
+     * @return a random direction
+     */
+    Direction randomDirection(final int theIndex) {
+        final Direction toGive;
+        if (myRandomGamma[theIndex] != 0) {
+            toGive = DIRECTIONS[nextInt(theIndex, DIRECTIONS.length)];
+        } else if (myRandoms != null && myRandoms[theIndex] != null) {
+            toGive = Direction.random(myRandoms[theIndex]);
+        } else {
+            toGive = Direction.random();
+        }
+        return toGive;
+    }
+
+    /**
+     * Sets the x coordinate of a vehicle.
+     *
+     * @param theIndex the slot
+     * @param theX the x coordinate
+     */
+    void setX(final int theIndex, final int theX) {
+        myX[theIndex] = theX;
+    }
+
+    /**
+     * Sets the y coordinate of a vehicle.
+     *
+     * @param theIndex the slot
+     * @param theY the y coordinate
+     */
+    void setY(final int theIndex, final int theY) {
+        myY[theIndex] = theY;
+    }
+
+    /**
+     * Sets the direction of a vehicle.
+     *
+     * @param theIndex the slot
+     * @param theDirection the direction
+     */
+    void setDirection(final int theIndex, final Direction theDirection) {
+        myDirection[theIndex] = (byte) theDirection.ordinal();
+    }
+
+    /**
+     * Sets how many more updates a vehicle stays dead.
+     *
+     * @param theIndex the slot
+     * @param theLife the remaining updates, 0 to make the vehicle alive
+     */
+    void setLife(final int theIndex, final int theLife) {
+        myLife[theIndex] = theLife;
+    }
+
+    /**
+     * Sets how many more updates a vehicle waits where it is.
+     *
+     * @param theIndex the slot
+     * @param theWait the remaining updates, 0 when the vehicle is not waiting
+     */
+    void setWait(final int theIndex, final int theWait) {
+        myWait[theIndex] = theWait;
+    }
+
+    /**
+     * Moves a vehicle back to its starting state.
+     *
+     * @param theIndex the slot
+     */
+    void reset(final int theIndex) {
+        myX[theIndex] = myStartX[theIndex];
+        myY[theIndex] = myStartY[theIndex];
+        myDirection[theIndex] = myStartDirection[theIndex];
+        myLife[theIndex] = 0;
+    }
+
+    /**
+     * Draws an int in [0, theBound) from a vehicle's own state, as 
+     * SplittableRandom.nextInt(theBound) would.
+     *
+     * @param theIndex the slot
+     * @param theBound the exclusive upper bound
+     * @return the int
+     */
+    private int nextInt(final int theIndex, final int theBound) {
+        int r = nextInt(theIndex);
+        final int m = theBound - 1;
+        if ((theBound & m) == 0) {
+            r &= m;
+        } else {
+            for (int u = r >>> 1; u + m - (r = u % theBound) < 0; u = nextInt(theIndex) >>> 1) {
+                // draw again until the value is not biased
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Draws an int from a vehicle's own state, as SplittableRandom.nextInt() would.
+     *
+     * @param theIndex the slot
+     * @return the int
+     */
+    private int nextInt(final int theIndex) {
+        myRandomSeed[theIndex] += myRandomGamma[theIndex];
+        long z = myRandomSeed[theIndex];
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    /**
+     * Grows every array to a new number of slots.
+     *
+     * @param theCapacity the new number of slots
+     */
+    private void grow(final int theCapacity) {
+        myX = Arrays.copyOf(myX, theCapacity);
+        myY = Arrays.copyOf(myY, theCapacity);
+        myLife = Arrays.copyOf(myLife, theCapacity);
+        myDeathTime = Arrays.copyOf(myDeathTime, theCapacity);
+        myWait = Arrays.copyOf(myWait, theCapacity);
+        myDirection = Arrays.copyOf(myDirection, theCapacity);
+        myType = Arrays.copyOf(myType, theCapacity);
+        myStartX = Arrays.copyOf(myStartX, theCapacity);
+        myStartY = Arrays.copyOf(myStartY, theCapacity);
+        myStartDirection = Arrays.copyOf(myStartDirection, theCapacity);
+        myRandomSeed = Arrays.copyOf(myRandomSeed, theCapacity);
+        myRandomGamma = Arrays.copyOf(myRandomGamma, theCapacity);
+        if (myRandoms != null) {
+            myRandoms = Arrays.copyOf(myRandoms, theCapacity);
+        }
+    }
+
+    /*
+        Finds or registers the index of a vehicle class
+     */
+    private byte typeIndex(final Class<? extends Vehicle> theType) {
+        int index = myTypes.indexOf(theType);
+        if (index < 0) {
+            index = myTypes.size();
+            myTypes.add(theType);
+        }
+        return (byte) index;
+    }
+}
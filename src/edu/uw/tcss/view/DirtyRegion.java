@@ -0,0 +1,200 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.view;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The squares of the map that changed since the panel last painted. Squares are
+ * grouped into tiles, and each dirty tile keeps the bounding box of its dirty
+ * squares, so a tick that moves a few vehicles is repainted as a few small
+ * rectangles. Once too many tiles are dirty the whole map is repainted instead.
+ *
+ * <p>Squares may be marked on any thread. Marking only records the squares; the
+ * owner calls flush once it has marked everything that changed together, and the
+ * flush callback should arrange for the region to be drained and painted. Marks
+ * and flushes made before that drain are merged into the one paint.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 3
+ */
+final class DirtyRegion {
+
+    /**
+     * The number of squares along each side of a tile.
+     */
+    private static final int TILE_SQUARES = 8;
+
+    /**
+     * The most dirty tiles painted one by one; past this the whole map is painted.
+     */
+    private static final int MAX_DIRTY_TILES = 64;
+
+    /**
+     * The width of the map in squares.
+     */
+    private final int myWidth;
+
+    /**
+     * The height of the map in squares.
+     */
+    private final int myHeight;
+
+    /**
+     * The number of tile columns.
+     */
+    private final int myColumns;
+
+    /**
+     * The bounding box of the dirty squares in each tile, as min x, min y, max x and
+     * max y; min x is -1 when the tile is clean.
+     */
+    private final int[] myBounds;
+
+    /**
+     * The dirty tiles, in the order they were first marked.
+     */
+    private final int[] myDirtyTiles;
+
+    /**
+     * The number of dirty tiles.
+     */
+    private int myDirtyCount;
+
+    /**
+     * Whether the whole map is dirty.
+     */
+    private boolean myAllDirty;
+
+    /**
+     * Whether the flush callback has been called and the region not drained yet.
+     */
+    private boolean myFlushPending;
+
+    /**
+     * Called with this region by the first flush after a drain.
+     */
+    private final Consumer<DirtyRegion> myFlush;
+
+    /**
+     * Creates a clean region for a map.
+     *
+     * @param theWidth the width of the map in squares
+     * @param theHeight the height of the map in squares
+     * @param theFlush called with this region by the first flush after a drain
+     */
+    DirtyRegion(final int theWidth, final int theHeight, 
+                final Consumer<DirtyRegion> theFlush) {
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myColumns = (theWidth + TILE_SQUARES - 1) / TILE_SQUARES;
+        final int rows = (theHeight + TILE_SQUARES - 1) / TILE_SQUARES;
+        myBounds = new int[myColumns * rows * 4];
+        for (int i = 0; i < myBounds.length; i += 4) {
+            myBounds[i] = -1;
+        }
+        myDirtyTiles = new int[MAX_DIRTY_TILES];
+        myFlush = theFlush;
+    }
+
+    /**
+     * Marks one square dirty. Squares outside the map are ignored.
+     *
+     * @param theX the x coordinate of the square
+     * @param theY the y coordinate of the square
+     * @return false if the whole map is dirty, so marking more squares is pointless
+     */
+    synchronized boolean mark(final int theX, final int theY) {
+        if (myAllDirty) {
+            return false;
+        }
+        if (theX < 0 || theY < 0 || theX >= myWidth || theY >= myHeight) {
+            return true;
+        }
+        final int tile = theY / TILE_SQUARES * myColumns + theX / TILE_SQUARES;
+        final int base = tile * 4;
+        if (myBounds[base] < 0) {
+            if (myDirtyCount == MAX_DIRTY_TILES) {
+                markAllLocked();
+                return false;
+            }
+            myDirtyTiles[myDirtyCount++] = tile;
+            myBounds[base] = theX;
+            myBounds[base + 1] = theY;
+            myBounds[base + 2] = theX;
+            myBounds[base + 3] = theY;
+        } else {
+            myBounds[base] = Math.min(myBounds[base], theX);
+            myBounds[base + 1] = Math.min(myBounds[base + 1], theY);
+            myBounds[base + 2] = Math.max(myBounds[base + 2], theX);
+            myBounds[base + 3] = Math.max(myBounds[base + 3], theY);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the whole map dirty.
+     */
+    synchronized void markAll() {
+        markAllLocked();
+    }
+
+    /**
+     * Calls the flush callback if anything is dirty, unless it has been called 
+     * since the last drain.
+     */
+    synchronized void flush() {
+        if (!myFlushPending && (myAllDirty || myDirtyCount > 0)) {
+            myFlushPending = true;
+            myFlush.accept(this);
+        }
+    }
+
+    /**
+     * Returns the dirty area and makes the region clean again.
+     *
+     * @param theSquareSize the size in pixels of a side of one square, as drawn
+     * @return the dirty rectangles in pixels, or null if the whole map is dirty
+     */
+    synchronized List<Rectangle> drain(final double theSquareSize) {
+        myFlushPending = false;
+        List<Rectangle> result = null;
+        if (!myAllDirty) {
+            result = new ArrayList<>(myDirtyCount);
+            for (int i = 0; i < myDirtyCount; i++) {
+                final int base = myDirtyTiles[i] * 4;
+                final int left = (int) Math.floor(myBounds[base] * theSquareSize);
+                final int top = (int) Math.floor(myBounds[base + 1] * theSquareSize);
+                final int right = (int) Math.ceil((myBounds[base + 2] + 1) * theSquareSize);
+                final int bottom = (int) Math.ceil((myBounds[base + 3] + 1) * theSquareSize);
+                result.add(new Rectangle(left, top, right - left, bottom - top));
+            }
+        }
+        clearTiles();
+        myAllDirty = false;
+        return result;
+    }
+
+    /**
+     * Marks the whole map dirty; the caller holds the lock.
+     */
+    private void markAllLocked() {
+        myAllDirty = true;
+        clearTiles();
+    }
+
+    /**
+     * Marks every dirty tile clean.
+     */
+    private void clearTiles() {
+        for (int i = 0; i < myDirtyCount; i++) {
+            myBounds[myDirtyTiles[i] * 4] = -1;
+        }
+        myDirtyCount = 0;
+    }
+}
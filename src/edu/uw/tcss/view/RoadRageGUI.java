@@ -6,21 +6,35 @@ package edu.uw.tcss.view;
 
 import edu.uw.tcss.io.FileLoader;
 import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.ReplayPlayer;
 import java.awt.BorderLayout;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.io.Serial;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JSlider;
+import javax.swing.JViewport;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -77,6 +91,26 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
      */
     private static final String RESET_COMMAND = "Reset";
 
+    /**
+     * The Zoom In command.
+     */
+    private static final String ZOOM_IN_COMMAND = "Zoom In";
+
+    /**
+     * The Zoom Out command.
+     */
+    private static final String ZOOM_OUT_COMMAND = "Zoom Out";
+
+    /**
+     * How much each zoom command changes the zoom factor.
+     */
+    private static final double ZOOM_STEP = 2;
+
+    /**
+     * The largest fraction of the screen the map view initially takes up.
+     */
+    private static final double MAX_SCREEN_FRACTION = 0.8;
+
     /**
      * The initial frames per second at which the simulation will run.
      */
@@ -102,28 +136,79 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
      */
     private static final int MAJOR_TICK_SPACING = 10;
 
+    /**
+     * The name of the thread that runs the simulation in simulation thread mode.
+     */
+    private static final String SIMULATION_THREAD_NAME = "road-rage-simulation";
+
 
     // Instance Fields
     
     /**
      * The delay between updates, based on the frames per second setting.
      */
-    private int myDelay;
+    private volatile int myDelay;
 
     /**
-     * A timer used to update the state of the simulation.
+     * A timer used to update the state of the simulation on the EDT.
      */
     private final Timer myTimer;
 
+    /**
+     * The thread that updates the state of the simulation in simulation thread
+     * mode. Every command in that mode runs on this thread, so the simulation is 
+     * only ever touched by one thread at a time.
+     */
+    private final ScheduledExecutorService mySimulation;
+
+    /**
+     * The repeating update on the simulation thread, or null if it is stopped.
+     * Only accessed on the simulation thread.
+     */
+    private ScheduledFuture<?> myTicker;
+
+    /**
+     * Whether the simulation runs on its own thread rather than on the EDT.
+     * Only accessed on the EDT.
+     */
+    private boolean mySimulationThreadFlag;
+
     /**
      * The slider for "frames per second".
      */
     private JSlider mySlider;
+
+    /**
+     * The replay being shown, or null if the GUI shows a simulation.
+     */
+    private final ReplayPlayer myReplay;
+
+    /**
+     * The slider for the current frame of a replay, or null if the GUI shows a 
+     * simulation.
+     */
+    private JSlider myFrameSlider;
+
+    /**
+     * Whether the frame slider is being moved to follow the replay, rather than by
+     * the user. Only accessed on the EDT.
+     */
+    private boolean myFollowingReplay;
     
     /**
      * The logic for the simulation. 
      */
     private final PropertyChangeEnabledRoadRageControls myRoadRage;
+
+    /**
+     * The panel showing the map.
+     */
+    private RoadRagePanel myPanel;
+
+    /**
+     * The scroll pane holding the panel.
+     */
+    private JScrollPane myScrollPane;
     
     // Constructor
 
@@ -132,20 +217,77 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
      * directory.
      */
     public RoadRageGUI() {
+        this(Path.of(FileLoader.getDefaultCityFile()));
+    }
+
+    /**
+     * Constructs a new RoadRageGUI for a city map file or a replay log. If the file
+     * cannot be read, an error dialog is shown instead of the window.
+     * 
+     * @param theMap the city map file, text or binary, or a replay log
+     */
+    public RoadRageGUI(final Path theMap) {
+        this(readCity(theMap));
+    }
+
+    /**
+     * Constructs a new RoadRageGUI for a simulation, or for anything else that fires
+     * the same events, such as a ReplayPlayer. Shows nothing if there is no 
+     * simulation.
+     * 
+     * @param theRoadRage the simulation, or null if the map could not be read
+     */
+    public RoadRageGUI(final PropertyChangeEnabledRoadRageControls theRoadRage) {
         super(TITLE);
         // initialize instance fields
         
         myDelay = MY_DELAY_NUMERATOR / INITIAL_FRAMES_PER_SECOND;
         myTimer = new Timer(myDelay, this);        
+        mySimulation = Executors.newSingleThreadScheduledExecutor(theTask -> {
+            final Thread thread = new Thread(theTask, SIMULATION_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        myRoadRage = FileLoader.readCity(this);
+        myRoadRage = theRoadRage;
+        myReplay = theRoadRage instanceof ReplayPlayer player ? player : null;
+        if (myRoadRage == null) {
+            mySimulation.shutdown();
+            dispose();
+            return;
+        }
         
+        VehicleSprites.preload();
         initGUI();
         
         myRoadRage.start();
         setVisible(true);
     }
     
+    /**
+     * Reads a city map file or opens a replay log, showing an error dialog if it 
+     * cannot be read.
+     * 
+     * @param theMap the city map file or replay log
+     * @return the simulation or replay based on the file, or null if it could not be
+     *         read
+     */
+    private static PropertyChangeEnabledRoadRageControls readCity(final Path theMap) {
+        PropertyChangeEnabledRoadRageControls result = null;
+        try {
+            if (ReplayPlayer.isReplayLog(theMap)) {
+                result = ReplayPlayer.open(theMap);
+            } else {
+                result = FileLoader.readCity(theMap);
+            }
+        } catch (final IOException ioe) {
+            JOptionPane.showMessageDialog(null, "Could not read city map file " + theMap
+                                          + ":\n\n" + ioe.getMessage(), "I/O Error",
+                                          JOptionPane.ERROR_MESSAGE);
+        }
+        return result;
+    }
+    
     // Instance Methods
     
     /**
@@ -158,7 +300,15 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
         
         final RoadRagePanel panel = 
                         new RoadRagePanel(myRoadRage.getWidth(), myRoadRage.getHeight()); 
-        myRoadRage.addPropertyChangeListener(panel);
+        panel.listenTo(myRoadRage);
+        myPanel = panel;
+        myScrollPane = new JScrollPane(panel);
+        final Dimension mapSize = panel.getPreferredSize();
+        myScrollPane.getViewport().setPreferredSize(
+            new Dimension(Math.min(mapSize.width, 
+                                   (int) (SCREEN_SIZE.width * MAX_SCREEN_FRACTION)),
+                          Math.min(mapSize.height, 
+                                   (int) (SCREEN_SIZE.height * MAX_SCREEN_FRACTION))));
   
         mySlider = new JSlider(SwingConstants.HORIZONTAL, 0, MAX_FRAMES_PER_SECOND,
                                INITIAL_FRAMES_PER_SECOND);
@@ -174,6 +324,9 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
                 if (value > 0) {
                     myDelay = MY_DELAY_NUMERATOR / value;
                     myTimer.setDelay(myDelay);
+                    if (mySimulationThreadFlag) {
+                        mySimulation.execute(RoadRageGUI.this::restartTicker);
+                    }
                 }
             }
         });
@@ -181,25 +334,37 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
         final JCheckBox box = new JCheckBox("Debug Mode");
         box.addChangeListener(panel);
 
+        final JCheckBox threadBox = new JCheckBox("Simulation Thread");
+        threadBox.addActionListener(theEvent -> 
+            setSimulationThreadMode(threadBox.isSelected()));
+
         // layout
         final Container northPanel = new JPanel(new FlowLayout());
         northPanel.add(makeButton(START_COMMAND));
         northPanel.add(makeButton(STOP_COMMAND));
         northPanel.add(makeButton(STEP_COMMAND));
         northPanel.add(makeButton(RESET_COMMAND));
+        northPanel.add(makeButton(ZOOM_IN_COMMAND));
+        northPanel.add(makeButton(ZOOM_OUT_COMMAND));
 
         final Container southPanel = new JPanel(new FlowLayout());
         southPanel.add(new JLabel("FPS: "));
         southPanel.add(mySlider);
         southPanel.add(box);
+        southPanel.add(threadBox);
+
+        final Container bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(southPanel, BorderLayout.SOUTH);
+        if (myReplay != null) {
+            bottomPanel.add(makeFrameSlider(), BorderLayout.NORTH);
+        }
 
         final Container masterPanel = new JPanel(new BorderLayout());
-        masterPanel.add(panel, BorderLayout.CENTER);
+        masterPanel.add(myScrollPane, BorderLayout.CENTER);
         masterPanel.add(northPanel, BorderLayout.NORTH);
-        masterPanel.add(southPanel, BorderLayout.SOUTH);
+        masterPanel.add(bottomPanel, BorderLayout.SOUTH);
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setResizable(false);
         add(masterPanel);
         pack();
         // position the frame in the center of the screen
@@ -207,6 +372,65 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
                     SCREEN_SIZE.height / 2 - getHeight() / 2);
     }
     
+    /**
+     * Creates the slider that scrubs through the frames of a replay. Moving it seeks
+     * the replay, on the simulation thread in simulation thread mode, and it follows
+     * the replay as it plays.
+     * 
+     * @return the slider, with its label
+     */
+    private Container makeFrameSlider() {
+        myFrameSlider = new JSlider(SwingConstants.HORIZONTAL, 0, 
+                                    Math.max(0, myReplay.getFrameCount() - 1), 0);
+        myFrameSlider.addChangeListener(theEvent -> {
+            if (!myFollowingReplay) {
+                final int frame = myFrameSlider.getValue();
+                if (mySimulationThreadFlag) {
+                    mySimulation.execute(() -> seek(frame));
+                } else {
+                    seek(frame);
+                }
+            }
+        });
+        // the replay fires on whichever thread moved it; the slider follows on the EDT
+        myReplay.addPropertyChangeListener(
+            PropertyChangeEnabledRoadRageControls.PROPERTY_TIME, theEvent -> {
+                final int frame = myReplay.getFrame();
+                SwingUtilities.invokeLater(() -> {
+                    myFollowingReplay = true;
+                    myFrameSlider.setValue(frame);
+                    myFollowingReplay = false;
+                });
+            });
+
+        final Container result = new JPanel(new BorderLayout());
+        result.add(new JLabel(" Frame: "), BorderLayout.WEST);
+        result.add(myFrameSlider, BorderLayout.CENTER);
+        return result;
+    }
+
+    /**
+     * Shows a frame of the replay, unless it is already showing. Called on the 
+     * thread that updates the simulation.
+     * 
+     * @param theFrame the frame
+     */
+    private void seek(final int theFrame) {
+        if (theFrame != myReplay.getFrame() && theFrame < myReplay.getFrameCount()) {
+            myReplay.seek(theFrame);
+        }
+    }
+
+    /**
+     * Returns whether a replay is showing its last frame, so playing it further 
+     * would change nothing. Called on the thread that updates the simulation.
+     * 
+     * @return true if a replay is at its end
+     */
+    private boolean isReplayFinished() {
+        return myReplay != null && myReplay.getFrame() >= myReplay.getFrameCount() - 1;
+    }
+
     /**
      * Returns a new JButton with the specified text.
      * 
@@ -228,8 +452,21 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
     public void actionPerformed(final ActionEvent theEvent) {
         final Object source = theEvent.getSource();
         if (source.equals(myTimer)) {
-            // event came from the timer
-            myRoadRage.advance();
+            // event came from the timer; one may still be queued after a mode switch
+            if (!mySimulationThreadFlag) {
+                myRoadRage.advance();
+                if (isReplayFinished()) {
+                    myTimer.stop();
+                }
+            }
+        } else if (ZOOM_IN_COMMAND.equals(theEvent.getActionCommand())) {
+            zoom(ZOOM_STEP);
+        } else if (ZOOM_OUT_COMMAND.equals(theEvent.getActionCommand())) {
+            zoom(1 / ZOOM_STEP);
+        } else if (mySimulationThreadFlag) {
+            // event came from one of the buttons; hand it to the simulation thread
+            final String command = theEvent.getActionCommand().intern();
+            mySimulation.execute(() -> simulationCommand(command));
         } else {
             // event came from one of the buttons
             final String command = theEvent.getActionCommand().intern();
@@ -243,6 +480,26 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
         }
     }
 
+    /**
+     * Zooms the map view, keeping the same point of the map in the center.
+     * 
+     * @param theFactor how much to multiply the zoom factor by
+     */
+    private void zoom(final double theFactor) {
+        final JViewport viewport = myScrollPane.getViewport();
+        final Rectangle view = viewport.getViewRect();
+        final double oldZoom = myPanel.getZoom();
+        myPanel.setZoom(oldZoom * theFactor);
+        final double scale = myPanel.getZoom() / oldZoom;
+        viewport.validate();
+        final Dimension size = myPanel.getPreferredSize();
+        final int x = (int) ((view.x + view.width / 2.0) * scale - view.width / 2.0);
+        final int y = (int) ((view.y + view.height / 2.0) * scale - view.height / 2.0);
+        viewport.setViewPosition(new Point(
+            Math.max(0, Math.min(x, size.width - view.width)),
+            Math.max(0, Math.min(y, size.height - view.height))));
+    }
+
     /**
      * Resets all the vehicles to their initial locations, resets the tick
      * counter, and stops the simulation.
@@ -251,6 +508,89 @@ public final class RoadRageGUI extends JFrame implements ActionListener {
         myTimer.stop();
         myRoadRage.reset();
     }
+
+    /**
+     * Switches between updating the simulation on the EDT and on its own thread.
+     * The simulation is stopped either way; Start resumes it in the new mode. 
+     * Switching back to the EDT waits for the simulation thread to finish its 
+     * current update, so the two never update the simulation at the same time.
+     * 
+     * @param theFlag true to update the simulation on its own thread
+     */
+    private void setSimulationThreadMode(final boolean theFlag) {
+        myTimer.stop();
+        try {
+            mySimulation.submit(this::stopTicker).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        mySimulationThreadFlag = theFlag;
+    }
+
+    /**
+     * Carries out a button command on the simulation thread. Events fired by the 
+     * simulation arrive on that thread too; the panel copies what it needs from 
+     * them and paints the latest copy on the EDT.
+     * 
+     * @param theCommand the command
+     */
+    private void simulationCommand(final String theCommand) {
+        switch (theCommand) {
+            case START_COMMAND -> startTicker();
+            case STOP_COMMAND -> stopTicker();
+            case STEP_COMMAND -> myRoadRage.advance();
+            case RESET_COMMAND -> {
+                stopTicker();
+                myRoadRage.reset();
+            }
+            default -> throw new IllegalStateException("You shall not pass");
+        }
+    }
+
+    /**
+     * Starts updating the simulation at the current rate, if it is stopped.
+     * Called on the simulation thread.
+     */
+    private void startTicker() {
+        if (myTicker == null) {
+            myTicker = mySimulation.scheduleAtFixedRate(this::tick, myDelay, 
+                                                        myDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Updates the simulation once, stopping at the end of a replay. Called on the 
+     * simulation thread.
+     */
+    private void tick() {
+        myRoadRage.advance();
+        if (isReplayFinished()) {
+            stopTicker();
+        }
+    }
+
+    /**
+     * Stops updating the simulation. Called on the simulation thread.
+     */
+    private void stopTicker() {
+        if (myTicker != null) {
+            myTicker.cancel(false);
+            myTicker = null;
+        }
+    }
+
+    /**
+     * Picks up a new rate if the simulation is running. Called on the 
+     * simulation thread.
+     */
+    private void restartTicker() {
+        if (myTicker != null) {
+            stopTicker();
+            startTicker();
+        }
+    }
         
  // end class RoadRageGUI
 }
\ No newline at end of file
@@ -6,31 +6,33 @@ package edu.uw.tcss.view;
 
 import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_GRID;
 import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_LIGHT;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
 import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_TIME;
-import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLES;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLE_DELTA;
 
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.TickSnapshot;
+import edu.uw.tcss.logic.VehicleDelta;
 import edu.uw.tcss.model.Direction;
 import edu.uw.tcss.model.Light;
 import edu.uw.tcss.model.Terrain;
-import edu.uw.tcss.model.Vehicle;
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
-import java.awt.MediaTracker;
 import java.awt.Paint;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.Serial;
-import java.util.ArrayList;
 import java.util.List;
-import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 import javax.swing.JToggleButton;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -61,18 +63,6 @@ public final class RoadRagePanel extends JPanel implements
      */
     private static final Font FONT = new Font("SansSerif", Font.BOLD, 9);
     
-    /**
-     * The stroke used for painting.
-     */
-    private static final BasicStroke STROKE = new BasicStroke(3, BasicStroke.CAP_BUTT,
-                                                              BasicStroke.JOIN_MITER, 2,
-                                                              new float[] {2, 2, 2, 2}, 0);
-
-    /**
-     * The offset to use to position cross walk lines and to use for cross walk light size.
-     */
-    private static final double CROSSWALK_SCALE = .25;
-    
     /**
      * The size in pixels of the directional markers drawn on vehicles in debug
      * mode.
@@ -89,13 +79,41 @@ public final class RoadRagePanel extends JPanel implements
      */
     private static final int SQUARE_SIZE = 40;
     
+    /**
+     * The properties this panel draws from. It listens for these alone, since a
+     * listener for every property would make the simulation build the vehicle list
+     * each tick, which the panel never reads.
+     */
+    public static final List<String> PROPERTIES = List.of(PROPERTY_GRID, PROPERTY_LIGHT,
+        PROPERTY_TIME, PROPERTY_SNAPSHOT, PROPERTY_VEHICLE_DELTA);
+    
+    /**
+     * The smallest zoom factor.
+     */
+    private static final double MIN_ZOOM = 0.125;
+    
+    /**
+     * The largest zoom factor.
+     */
+    private static final double MAX_ZOOM = 4;
+    
 
     // Instance Fields
     
     /**
-     * The terrain grid for the simulation.
+     * The width of the map in squares.
+     */
+    private final int myWidth;
+    
+    /**
+     * The height of the map in squares.
+     */
+    private final int myHeight;
+    
+    /**
+     * The pre-rendered terrain of the map.
      */
-    private Terrain[][] myGrid;
+    private volatile TerrainLayer myTerrain;
     
     /**
      * A flag indicating whether or not we are running in debug mode.
@@ -113,9 +131,43 @@ public final class RoadRagePanel extends JPanel implements
     private Color myLightColor;
         
     /**
-     * The vehicles to move and display. 
+     * The vehicles to display, as of the latest snapshot event. 
+     */
+    private TickSnapshot myVehicles;
+    
+    /**
+     * The latest frame, replaced as a whole whenever the simulation changes. Events
+     * may arrive on a simulation thread while the EDT paints, so painting only ever
+     * reads one frame and never sees a half-updated one. 
+     */
+    private volatile Frame myFrame;
+    
+    /**
+     * The squares that changed since the last paint. 
+     */
+    private volatile DirtyRegion myDirty;
+    
+    /**
+     * The latest snapshot whose changes have been marked and flushed, or null if 
+     * none has been. Only accessed on the thread firing events.
      */
-    private List<Vehicle> myVehicles;
+    private TickSnapshot myMarkedSnapshot;
+    
+    /**
+     * Whether the latest snapshot is waiting for the delta from the marked one. 
+     * Only accessed on the thread firing events.
+     */
+    private boolean myAwaitingDelta;
+    
+    /**
+     * The zoom factor; 1 draws each square SQUARE_SIZE pixels wide.
+     */
+    private double myZoom;
+    
+    /**
+     * The vehicle index of the frame last painted. Only accessed on the EDT.
+     */
+    private VehicleIndex myVehicleIndex;
 
     // Constructor
 
@@ -127,9 +179,14 @@ public final class RoadRagePanel extends JPanel implements
     public RoadRagePanel(final int theWidth, final int theHeight) {
         super();
 
-        myVehicles = new ArrayList<>();
-        myGrid = new Terrain[0][0];
+        myVehicles = TickSnapshot.of(0, Light.GREEN, List.of());
+        myTerrain = new TerrainLayer(new Terrain[0][0], SQUARE_SIZE);
+        myDirty = newDirtyRegion(0, 0);
         setLightColor(Light.GREEN);
+        publishFrame();
+        myZoom = 1;
+        myWidth = theWidth;
+        myHeight = theHeight;
         setPreferredSize(new Dimension(theWidth * SQUARE_SIZE,
                                        theHeight * SQUARE_SIZE));
         setBackground(Color.GREEN);
@@ -138,6 +195,41 @@ public final class RoadRagePanel extends JPanel implements
 
     // Instance Methods
 
+    /**
+     * Returns the zoom factor.
+     * 
+     * @return the zoom factor; 1 is full size
+     */
+    public double getZoom() {
+        return myZoom;
+    }
+
+    /**
+     * Registers this panel with a simulation for each of the properties it draws
+     * from.
+     * 
+     * @param theControls the simulation
+     */
+    public void listenTo(final PropertyChangeEnabledRoadRageControls theControls) {
+        for (final String property : PROPERTIES) {
+            theControls.addPropertyChangeListener(property, this);
+        }
+    }
+
+    /**
+     * Sets the zoom factor, clamped to between 1/8 and 4, and resizes the panel to
+     * match. Call on the EDT.
+     * 
+     * @param theZoom the zoom factor; 1 is full size
+     */
+    public void setZoom(final double theZoom) {
+        myZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, theZoom));
+        setPreferredSize(new Dimension((int) Math.ceil(myWidth * SQUARE_SIZE * myZoom),
+                                       (int) Math.ceil(myHeight * SQUARE_SIZE * myZoom)));
+        revalidate();
+        repaint();
+    }
+
     /**
      * Paints this panel on the screen with the specified Graphics object.
      * 
@@ -150,94 +242,99 @@ public final class RoadRagePanel extends JPanel implements
         final Graphics2D g2 = (Graphics2D) theGraphics;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                             RenderingHints.VALUE_ANTIALIAS_ON);
+        final AffineTransform unzoomed = g2.getTransform();
+        g2.scale(myZoom, myZoom);
+        final Rectangle clip = g2.getClipBounds(new Rectangle(0, 0, 
+                                                (int) Math.ceil(getWidth() / myZoom),
+                                                (int) Math.ceil(getHeight() / myZoom)));
+        final TerrainLayer terrain = myTerrain;
+        final Frame frame = myFrame;
+        final Terrain[][] grid = terrain.getGrid();
+
+        // the squares that intersect the clip
+        final int firstX = Math.max(0, clip.x / SQUARE_SIZE);
+        final int firstY = Math.max(0, clip.y / SQUARE_SIZE);
+        final int lastX = (clip.x + clip.width - 1) / SQUARE_SIZE;
+        final int lastY = (clip.y + clip.height - 1) / SQUARE_SIZE;
+
+        // draw city map: the cached terrain, then the lights that change color
+
+        terrain.paintTerrain(g2, clip);
+        terrain.paintLights(g2, frame.lightColor(), clip);
+        if (myDebugFlag) {
+            drawDebugGrid(g2, grid, firstX, firstY, lastX, lastY);
+        }
 
-        g2.setStroke(STROKE);
-
-        // draw city map
-
-        drawMap(g2);
-
-        // draw vehicles
-        for (final Vehicle v : myVehicles) {
-            final String imageFilename = "icons//" + v.getImageFileName();
-            //final String imageFilename = v.getImageFileName();
-            ImageIcon imgIcon = new ImageIcon(imageFilename);
-
-            if (imgIcon.getImageLoadStatus() != MediaTracker.COMPLETE) {
-                imgIcon = new ImageIcon(getClass().getResource(imageFilename));
-            }
-
-            final Image img = imgIcon.getImage();
-            g2.drawImage(img, v.getX() * SQUARE_SIZE, v.getY() * SQUARE_SIZE,
-                         SQUARE_SIZE, SQUARE_SIZE, this);
-
-            if (myDebugFlag) {
-                drawDebugInfo(g2, v);
+        // draw vehicles; in debug mode labels spill out of their squares, so draw all
+        final VehicleIndex index = vehicleIndex(frame);
+        final TickSnapshot vehicles = index.getVehicles();
+        if (myDebugFlag) {
+            for (int i = 0; i < vehicles.size(); i++) {
+                drawVehicle(g2, vehicles, i);
             }
+        } else {
+            index.forEachIn(firstX, firstY, lastX, lastY, i -> drawVehicle(g2, vehicles, i));
         }
 
         if (myDebugFlag) {
+            g2.setTransform(unzoomed);
             g2.setColor(Color.WHITE);
-            g2.drawString("Update # " + myTimestep, DEBUG_OFFSET / 2,
+            g2.drawString("Update # " + frame.timestep(), DEBUG_OFFSET / 2,
                           FONT.getSize() + DEBUG_OFFSET / 2);
         }
     }
     
-
     /**
-     * Draws the city map with the specified Graphics2D object.
+     * Draws one vehicle, and its debug information in debug mode.
      * 
      * @param theGraphics The Graphics2D object.
+     * @param theVehicles The snapshot holding the Vehicle.
+     * @param theIndex The index of the Vehicle being drawn.
      */
-    @SuppressWarnings("OverlyLongMethod")
-    private void drawMap(final Graphics2D theGraphics) {
-        for (int y = 0; y < myGrid.length; y++) {
-            final int topy = y * SQUARE_SIZE;
-
-            for (int x = 0; x < myGrid[y].length; x++) {
-                final int leftx = x * SQUARE_SIZE;
-
-                switch (myGrid[y][x]) {
-                    case STREET:
-                        theGraphics.setPaint(Color.LIGHT_GRAY);
-                        theGraphics.fillRect(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        drawStreetLines(theGraphics, x, y);
-                        break;
-
-                    case WALL:
-                        theGraphics.setPaint(Color.BLACK);
-                        theGraphics.fillRect(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        break;
-
-                    case TRAIL:
-                        theGraphics.setPaint(Color.YELLOW.darker().darker());
-                        theGraphics.fillRect(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        break;
-
-                    case LIGHT:
-                        // draw a circle of appropriate color
-                        theGraphics.setPaint(Color.LIGHT_GRAY);
-                        theGraphics.fillRect(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        theGraphics.setPaint(myLightColor);
-                        theGraphics.fillOval(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        break;
-                        
-                    case CROSSWALK:
-                        theGraphics.setPaint(Color.LIGHT_GRAY);
-                        theGraphics.fillRect(leftx, topy, SQUARE_SIZE, SQUARE_SIZE);
-                        
-                        drawCrossWalkLines(theGraphics, x, y);
-                        
-                        // draw a small circle of appropriate color centered in the square
-                        theGraphics.setPaint(myLightColor);
-                        theGraphics.fillOval(leftx + (int)  (SQUARE_SIZE * CROSSWALK_SCALE),
-                                             topy  + (int) (SQUARE_SIZE * CROSSWALK_SCALE),
-                                             SQUARE_SIZE / 2, SQUARE_SIZE / 2);
-                        break;
-
-                    default:
-                }
+    private void drawVehicle(final Graphics2D theGraphics, final TickSnapshot theVehicles,
+                             final int theIndex) {
+        final Image img = VehicleSprites.get(theVehicles.getType(theIndex), 
+                                             theVehicles.isAlive(theIndex),
+                                             theVehicles.getImageFileName(theIndex));
+        theGraphics.drawImage(img, theVehicles.getX(theIndex) * SQUARE_SIZE, 
+                              theVehicles.getY(theIndex) * SQUARE_SIZE,
+                              SQUARE_SIZE, SQUARE_SIZE, this);
 
+        if (myDebugFlag) {
+            drawDebugInfo(theGraphics, theVehicles, theIndex);
+        }
+    }
+    
+    /**
+     * Returns the vehicle index of a frame, building it the first time the frame is
+     * painted. Frames replaced before they are painted are never indexed.
+     * 
+     * @param theFrame the frame being painted
+     * @return the vehicle index
+     */
+    private VehicleIndex vehicleIndex(final Frame theFrame) {
+        if (myVehicleIndex == null || myVehicleIndex.getVehicles() != theFrame.vehicles()) {
+            myVehicleIndex = new VehicleIndex(theFrame.vehicles(), myWidth, myHeight);
+        }
+        return myVehicleIndex;
+    }
+    
+
+    /**
+     * Draws the coordinates of every square in a range, in debug mode.
+     * 
+     * @param theGraphics The Graphics2D object.
+     * @param theGrid The terrain grid.
+     * @param theFirstX The first column of squares.
+     * @param theFirstY The first row of squares.
+     * @param theLastX The last column of squares, inclusive.
+     * @param theLastY The last row of squares, inclusive.
+     */
+    private void drawDebugGrid(final Graphics2D theGraphics, final Terrain[][] theGrid,
+                               final int theFirstX, final int theFirstY,
+                               final int theLastX, final int theLastY) {
+        for (int y = theFirstY; y <= Math.min(theLastY, theGrid.length - 1); y++) {
+            for (int x = theFirstX; x <= Math.min(theLastX, theGrid[y].length - 1); x++) {
                 drawDebugInfo(theGraphics, x, y);
             }
         }
@@ -268,21 +365,24 @@ public final class RoadRagePanel extends JPanel implements
      * Draws the debug information for a single Vehicle.
      * 
      * @param theGraphics The graphic context.
-     * @param theVehicle The Vehicle being drawn.
+     * @param theVehicles The snapshot holding the Vehicle.
+     * @param theIndex The index of the Vehicle being drawn.
      */
     @SuppressWarnings("OverlyLongMethod")
-    private void drawDebugInfo(final Graphics2D theGraphics, final Vehicle theVehicle) {
-        int x = theVehicle.getX() * SQUARE_SIZE;
-        int y = theVehicle.getY() * SQUARE_SIZE;
+    private void drawDebugInfo(final Graphics2D theGraphics, final TickSnapshot theVehicles,
+                               final int theIndex) {
+        int x = theVehicles.getX(theIndex) * SQUARE_SIZE;
+        int y = theVehicles.getY(theIndex) * SQUARE_SIZE;
+        final String label = theVehicles.getLabel(theIndex);
 
         // draw numbers on each vehicle
         theGraphics.setColor(Color.WHITE);
-        theGraphics.drawString(theVehicle.toString(), x, y + SQUARE_SIZE - 1);
+        theGraphics.drawString(label, x, y + SQUARE_SIZE - 1);
         theGraphics.setColor(Color.BLACK);
-        theGraphics.drawString(theVehicle.toString(), x + 1, y + SQUARE_SIZE);
+        theGraphics.drawString(label, x + 1, y + SQUARE_SIZE);
 
         // draw arrow on vehicle for its direction
-        final Direction dir = theVehicle.getDirection();
+        final Direction dir = theVehicles.getDirection(theIndex);
         int dx = (SQUARE_SIZE - MARKER_SIZE) / 2;
         int dy = dx;
 
@@ -336,127 +436,156 @@ public final class RoadRagePanel extends JPanel implements
         }
     }
     
+    @Override
+    public void propertyChange(final PropertyChangeEvent theEvent) {
+        switch (theEvent.getPropertyName()) {
+            case PROPERTY_GRID:
+                final Terrain[][] grid = (Terrain[][]) theEvent.getNewValue();
+                myTerrain = new TerrainLayer(grid, SQUARE_SIZE);
+                myDirty = newDirtyRegion(grid.length == 0 ? 0 : grid[0].length, 
+                                         grid.length);
+                myDirty.markAll();
+                break;
+            case PROPERTY_LIGHT:
+                setLightColor((Light) theEvent.getNewValue());
+                publishFrame();
+                myTerrain.markLights(myDirty);
+                break;
+            case PROPERTY_SNAPSHOT:
+                showSnapshot((TickSnapshot) theEvent.getNewValue());
+                break;
+            case PROPERTY_VEHICLE_DELTA:
+                // the delta is the last event of a tick
+                if (myAwaitingDelta) {
+                    if (theEvent.getOldValue() == myMarkedSnapshot) {
+                        markChanges((VehicleDelta) theEvent.getNewValue());
+                    } else {
+                        myDirty.markAll();
+                    }
+                    finishTick();
+                }
+                break;
+            case PROPERTY_TIME:
+                myTimestep = (Long) theEvent.getNewValue();
+                publishFrame();
+                markAllIfDebugging();
+                break;
+            default:
+                break;  
+            
+        }
+    }
+
     /**
-     * Draws dotted lines on cross walks.
+     * Shows a new snapshot. A snapshot that follows the marked one waits for the 
+     * delta between them. Otherwise no delta can say what changed: the snapshot 
+     * before it never got its delta, because the delta was dropped or coalesced on
+     * the way, or this is the first snapshot, or the simulation was reset, restored
+     * or seeked. Then the whole map is marked and flushed right away.
      * 
-     * @param theGraphics The Graphics context to use for drawing.
-     * @param theX The x-coordinate of the cross walk.
-     * @param theY The y-coordinate of the cross walk.
+     * @param theSnapshot the snapshot
      */
-    private void drawCrossWalkLines(final Graphics2D theGraphics,
-                                 final int theX, final int theY) {
-        
-        final Paint oldPaint = theGraphics.getPaint();
-        theGraphics.setPaint(Color.WHITE);
-
-        final int leftx = theX * SQUARE_SIZE;
-        final int topy = theY * SQUARE_SIZE;
-
-        final int rightx = leftx + SQUARE_SIZE;
-        final int bottomy = topy + SQUARE_SIZE;
-
-        if (isValidIndex(theY - 1, theX) && myGrid[theY - 1][theX] == Terrain.GRASS) {
-            // GRASS is above. Let's assume GRASS is also below.
-            // DRAW lines on left and right of light
-            theGraphics.drawLine(leftx  + (int) (SQUARE_SIZE * CROSSWALK_SCALE), topy,
-                                 leftx  + (int) (SQUARE_SIZE * CROSSWALK_SCALE), bottomy);
-            theGraphics.drawLine(rightx - (int) (SQUARE_SIZE * CROSSWALK_SCALE), topy,
-                                 rightx - (int) (SQUARE_SIZE * CROSSWALK_SCALE), bottomy);
-        }
-        
-
-        if (isValidIndex(theY, theX - 1) && myGrid[theY][theX - 1] == Terrain.GRASS) {
-            // GRASS is left. Let's assume GRASS is also right.
-            // DRAW lines above and below light
-            theGraphics.drawLine(leftx, topy + (int) (SQUARE_SIZE * CROSSWALK_SCALE),
-                                 rightx, topy + (int) (SQUARE_SIZE * CROSSWALK_SCALE));
-            theGraphics.drawLine(leftx, bottomy - (int) (SQUARE_SIZE * CROSSWALK_SCALE),
-                                 rightx, bottomy - (int) (SQUARE_SIZE * CROSSWALK_SCALE));
+    private void showSnapshot(final TickSnapshot theSnapshot) {
+        myVehicles = theSnapshot;
+        publishFrame();
+        markAllIfDebugging();
+        if (myAwaitingDelta || myMarkedSnapshot == null 
+            || theSnapshot.getTimestep() != myMarkedSnapshot.getTimestep() + 1) {
+            myDirty.markAll();
+            finishTick();
+        } else {
+            myAwaitingDelta = true;
         }
-
-        theGraphics.setPaint(oldPaint);
     }
     
     /**
-     * Draws dotted lines on streets.
+     * Flushes the marked squares of the latest snapshot, which becomes the marked 
+     * one.
+     */
+    private void finishTick() {
+        myDirty.flush();
+        myMarkedSnapshot = myVehicles;
+        myAwaitingDelta = false;
+    }
+
+    /**
+     * Marks the old and new squares of every changed vehicle dirty.
      * 
-     * @param theGraphics The Graphics context to use for drawing.
-     * @param theX The x-coordinate of the street.
-     * @param theY The y-coordinate of the street.
+     * @param theDelta the changed vehicles
      */
-    private void drawStreetLines(final Graphics2D theGraphics,
-                                 final int theX, final int theY) {
-        
-        final Paint oldPaint = theGraphics.getPaint();
-        theGraphics.setPaint(Color.YELLOW);
-
-        final int leftx = theX * SQUARE_SIZE;
-        final int topy = theY * SQUARE_SIZE;
-        final int centerx = leftx + SQUARE_SIZE / 2;
-        final int centery = topy + SQUARE_SIZE / 2;
-        final int rightx = leftx + SQUARE_SIZE;
-        final int bottomy = topy + SQUARE_SIZE;
-
-        if (isValidIndex(theY - 1, theX) && myGrid[theY - 1][theX] == Terrain.STREET) {
-            theGraphics.drawLine(centerx, centery, centerx, topy); // above
-        }
-        if (isValidIndex(theY + 1, theX) && myGrid[theY + 1][theX] == Terrain.STREET) {
-            theGraphics.drawLine(centerx, centery, centerx, bottomy); // below
-        }
-        if (isValidIndex(theY, theX - 1) && myGrid[theY][theX - 1] == Terrain.STREET) {
-            theGraphics.drawLine(centerx, centery, leftx, centery); // left
+    private void markChanges(final VehicleDelta theDelta) {
+        final DirtyRegion dirty = myDirty;
+        for (int i = 0; i < theDelta.size(); i++) {
+            if (!dirty.mark(theDelta.getOldX(i), theDelta.getOldY(i))
+                || !dirty.mark(theDelta.getX(i), theDelta.getY(i))) {
+                break;
+            }
         }
-        if (isValidIndex(theY, theX + 1) && myGrid[theY][theX + 1] == Terrain.STREET) {
-            theGraphics.drawLine(centerx, centery, rightx, centery); // right
+    }
+    
+    /**
+     * Marks the whole map dirty in debug mode, where labels spill out of their 
+     * squares and the update count is drawn every tick.
+     */
+    private void markAllIfDebugging() {
+        if (myDebugFlag) {
+            myDirty.markAll();
         }
-
-        theGraphics.setPaint(oldPaint);
     }
     
     /**
-     * Tests whether the square at the given x/y position exists on the map.
+     * Creates a dirty region whose flushes are painted on the EDT.
      * 
-     * @param theX The x position.
-     * @param theY The y position.
-     * @return true if the position exists on the map, false otherwise.
+     * @param theWidth the width of the map in squares
+     * @param theHeight the height of the map in squares
+     * @return the dirty region
      */
-    private boolean isValidIndex(final int theY, final int theX) {
-        return theY >= 0 && theY < myGrid.length
-            && theX >= 0 && theX < myGrid[theY].length;
+    private DirtyRegion newDirtyRegion(final int theWidth, final int theHeight) {
+        return new DirtyRegion(theWidth, theHeight, 
+            theRegion -> SwingUtilities.invokeLater(() -> paintDirty(theRegion)));
     }
-
-    @Override
-    public void propertyChange(final PropertyChangeEvent theEvent) {
-        switch (theEvent.getPropertyName()) {
-            case PROPERTY_GRID:
-                myGrid = (Terrain[][]) theEvent.getNewValue();
-                repaint();
-                break;
-            case PROPERTY_LIGHT:
-                setLightColor((Light) theEvent.getNewValue());
-                repaint();
-                break;
-            case PROPERTY_VEHICLES:
-                @SuppressWarnings("unchecked") 
-                final List<Vehicle> list = (List<Vehicle>) theEvent.getNewValue();
-                myVehicles = new ArrayList<>(list);
-                repaint();
-                break;
-            case PROPERTY_TIME:
-                myTimestep = (Long) theEvent.getNewValue();
-                repaint();
-                break;
-            default:
-                break;  
-            
+    
+    /**
+     * Asks the repaint manager to paint the dirty part of the panel: each dirty 
+     * rectangle, or the whole panel. The repaint manager merges the rectangles into
+     * one paint. The region is only flushed once a tick's last event, its delta, 
+     * has been marked, so however the events of a tick interleave with the EDT, a
+     * tick costs one paint at most.
+     * 
+     * @param theRegion the region to paint
+     */
+    private void paintDirty(final DirtyRegion theRegion) {
+        final List<Rectangle> rectangles = theRegion.drain(SQUARE_SIZE * myZoom);
+        if (rectangles == null) {
+            repaint();
+        } else {
+            for (final Rectangle r : rectangles) {
+                repaint(r);
+            }
         }
     }
 
+    /**
+     * Publishes a new frame from the latest timestep, light and vehicles.
+     */
+    private void publishFrame() {
+        myFrame = new Frame(myTimestep, myLightColor, myVehicles);
+    }
+
     @Override
     public void stateChanged(final ChangeEvent theEvent) {
         myDebugFlag = ((JToggleButton) theEvent.getSource()).isSelected();
         repaint();
     }
     
+    /**
+     * One immutable frame of the simulation.
+     * 
+     * @param timestep the timestep
+     * @param lightColor the color of the lights
+     * @param vehicles the vehicles
+     */
+    private record Frame(long timestep, Color lightColor, TickSnapshot vehicles) { }
+    
 } // end class RoadRagePanel
 
@@ -0,0 +1,385 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.view;
+
+import edu.uw.tcss.model.Terrain;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+/**
+ * The static terrain of the map, pre-rendered into cached tiles. Only the light 
+ * colored ovals on LIGHT and CROSSWALK squares change from frame to frame, so they
+ * are drawn separately by {@link #paintLights(Graphics2D, Color, Rectangle)}.
+ * 
+ * <p>Tiles are rendered the first time they are painted and held through soft 
+ * references, so the garbage collector may drop tiles of very large maps and they
+ * are re-rendered on demand.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 February 24
+ */
+final class TerrainLayer {
+
+    /**
+     * The number of squares along each side of a tile.
+     */
+    private static final int TILE_SQUARES = 16;
+
+    /**
+     * The stroke used for painting street and cross walk lines.
+     */
+    private static final BasicStroke STROKE = new BasicStroke(3, BasicStroke.CAP_BUTT,
+                                                              BasicStroke.JOIN_MITER, 2,
+                                                              new float[] {2, 2, 2, 2}, 0);
+
+    /**
+     * The offset to use to position cross walk lines and to use for cross walk light size.
+     */
+    private static final double CROSSWALK_SCALE = .25;
+
+    /**
+     * The terrain grid.
+     */
+    private final Terrain[][] myGrid;
+
+    /**
+     * The size in pixels of a side of one square.
+     */
+    private final int mySquareSize;
+
+    /**
+     * The rendered tiles, indexed by tile row then tile column.
+     */
+    private final SoftReference<BufferedImage>[][] myTiles;
+
+    /**
+     * The x coordinate of every LIGHT and CROSSWALK square.
+     */
+    private final int[] myLightX;
+
+    /**
+     * The y coordinate of every LIGHT and CROSSWALK square.
+     */
+    private final int[] myLightY;
+
+    /**
+     * Creates the layer for a grid.
+     * 
+     * @param theGrid the terrain grid
+     * @param theSquareSize the size in pixels of a side of one square
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TerrainLayer(final Terrain[][] theGrid, final int theSquareSize) {
+        myGrid = theGrid;
+        mySquareSize = theSquareSize;
+        final int width;
+        if (theGrid.length == 0) {
+            width = 0;
+        } else {
+            width = theGrid[0].length;
+        }
+        myTiles = new SoftReference[ceilDiv(theGrid.length, TILE_SQUARES)]
+                                   [ceilDiv(width, TILE_SQUARES)];
+
+        int lights = 0;
+        for (final Terrain[] row : theGrid) {
+            for (final Terrain terrain : row) {
+                if (terrain == Terrain.LIGHT || terrain == Terrain.CROSSWALK) {
+                    lights++;
+                }
+            }
+        }
+        myLightX = new int[lights];
+        myLightY = new int[lights];
+        int i = 0;
+        for (int y = 0; y < theGrid.length; y++) {
+            for (int x = 0; x < theGrid[y].length; x++) {
+                if (theGrid[y][x] == Terrain.LIGHT || theGrid[y][x] == Terrain.CROSSWALK) {
+                    myLightX[i] = x;
+                    myLightY[i] = y;
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the terrain grid.
+     * 
+     * @return the terrain grid
+     */
+    Terrain[][] getGrid() {
+        return myGrid;
+    }
+
+    /**
+     * Paints the cached terrain tiles that intersect the clip.
+     * 
+     * @param theGraphics the graphics context
+     * @param theClip the area to paint, in pixels
+     */
+    void paintTerrain(final Graphics2D theGraphics, final Rectangle theClip) {
+        final int tilePixels = TILE_SQUARES * mySquareSize;
+        final int firstRow = Math.max(0, theClip.y / tilePixels);
+        final int lastRow = Math.min(myTiles.length - 1,
+                                     (theClip.y + theClip.height - 1) / tilePixels);
+        for (int row = firstRow; row <= lastRow; row++) {
+            final int firstColumn = Math.max(0, theClip.x / tilePixels);
+            final int lastColumn = Math.min(myTiles[row].length - 1,
+                                            (theClip.x + theClip.width - 1) / tilePixels);
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                theGraphics.drawImage(tile(row, column), column * tilePixels,
+                                      row * tilePixels, null);
+            }
+        }
+    }
+
+    /**
+     * Paints the light colored ovals on the LIGHT and CROSSWALK squares that 
+     * intersect the clip.
+     * 
+     * @param theGraphics the graphics context
+     * @param theLightColor the current color of the lights
+     * @param theClip the area to paint, in pixels
+     */
+    void paintLights(final Graphics2D theGraphics, final Color theLightColor,
+                     final Rectangle theClip) {
+        theGraphics.setPaint(theLightColor);
+        // the lights are sorted by row, so skip straight to the first row in the clip
+        final int firstRow = theClip.y / mySquareSize;
+        final int lastRow = (theClip.y + theClip.height - 1) / mySquareSize;
+        int first = Arrays.binarySearch(myLightY, firstRow);
+        if (first < 0) {
+            first = -first - 1;
+        }
+        while (first > 0 && myLightY[first - 1] == firstRow) {
+            first--;
+        }
+        for (int i = first; i < myLightX.length && myLightY[i] <= lastRow; i++) {
+            final int leftx = myLightX[i] * mySquareSize;
+            final int topy = myLightY[i] * mySquareSize;
+            if (!theClip.intersects(leftx, topy, mySquareSize, mySquareSize)) {
+                continue;
+            }
+            if (myGrid[myLightY[i]][myLightX[i]] == Terrain.LIGHT) {
+                theGraphics.fillOval(leftx, topy, mySquareSize, mySquareSize);
+            } else {
+                // draw a small circle of appropriate color centered in the square
+                theGraphics.fillOval(leftx + (int)  (mySquareSize * CROSSWALK_SCALE),
+                                     topy  + (int) (mySquareSize * CROSSWALK_SCALE),
+                                     mySquareSize / 2, mySquareSize / 2);
+            }
+        }
+    }
+
+    /**
+     * Marks every LIGHT and CROSSWALK square dirty, for when the lights change color.
+     * 
+     * @param theRegion the region to mark
+     */
+    void markLights(final DirtyRegion theRegion) {
+        for (int i = 0; i < myLightX.length && theRegion.mark(myLightX[i], myLightY[i]); i++) {
+            // keep marking until the whole map is dirty
+        }
+    }
+
+    /**
+     * Returns a tile, rendering it if it is not cached.
+     * 
+     * @param theRow the tile row
+     * @param theColumn the tile column
+     * @return the tile image
+     */
+    private BufferedImage tile(final int theRow, final int theColumn) {
+        final SoftReference<BufferedImage> ref = myTiles[theRow][theColumn];
+        BufferedImage result = null;
+        if (ref != null) {
+            result = ref.get();
+        }
+        if (result == null) {
+            result = renderTile(theRow, theColumn);
+            myTiles[theRow][theColumn] = new SoftReference<>(result);
+        }
+        return result;
+    }
+
+    /**
+     * Renders the terrain of one tile.
+     * 
+     * @param theRow the tile row
+     * @param theColumn the tile column
+     * @return the tile image
+     */
+    private BufferedImage renderTile(final int theRow, final int theColumn) {
+        final int tilePixels = TILE_SQUARES * mySquareSize;
+        final BufferedImage image = new BufferedImage(tilePixels, tilePixels,
+                                                      BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                            RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setStroke(STROKE);
+        g2.translate(-theColumn * tilePixels, -theRow * tilePixels);
+
+        // squares outside the map stay the panel's background color
+        g2.setPaint(Color.GREEN);
+        g2.fillRect(theColumn * tilePixels, theRow * tilePixels, tilePixels, tilePixels);
+
+        final int lastY = Math.min(myGrid.length, (theRow + 1) * TILE_SQUARES);
+        for (int y = theRow * TILE_SQUARES; y < lastY; y++) {
+            final int lastX = Math.min(myGrid[y].length, (theColumn + 1) * TILE_SQUARES);
+            for (int x = theColumn * TILE_SQUARES; x < lastX; x++) {
+                drawSquare(g2, x, y);
+            }
+        }
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Draws the static terrain of one square.
+     * 
+     * @param theGraphics The Graphics context to use for drawing.
+     * @param theX The x-coordinate of the square.
+     * @param theY The y-coordinate of the square.
+     */
+    private void drawSquare(final Graphics2D theGraphics, final int theX, final int theY) {
+        final int leftx = theX * mySquareSize;
+        final int topy = theY * mySquareSize;
+
+        switch (myGrid[theY][theX]) {
+            case STREET:
+                theGraphics.setPaint(Color.LIGHT_GRAY);
+                theGraphics.fillRect(leftx, topy, mySquareSize, mySquareSize);
+                drawStreetLines(theGraphics, theX, theY);
+                break;
+
+            case WALL:
+                theGraphics.setPaint(Color.BLACK);
+                theGraphics.fillRect(leftx, topy, mySquareSize, mySquareSize);
+                break;
+
+            case TRAIL:
+                theGraphics.setPaint(Color.YELLOW.darker().darker());
+                theGraphics.fillRect(leftx, topy, mySquareSize, mySquareSize);
+                break;
+
+            case LIGHT:
+                theGraphics.setPaint(Color.LIGHT_GRAY);
+                theGraphics.fillRect(leftx, topy, mySquareSize, mySquareSize);
+                break;
+
+            case CROSSWALK:
+                theGraphics.setPaint(Color.LIGHT_GRAY);
+                theGraphics.fillRect(leftx, topy, mySquareSize, mySquareSize);
+                drawCrossWalkLines(theGraphics, theX, theY);
+                break;
+
+            default:
+        }
+    }
+
+    /**
+     * Draws dotted lines on cross walks.
+     * 
+     * @param theGraphics The Graphics context to use for drawing.
+     * @param theX The x-coordinate of the cross walk.
+     * @param theY The y-coordinate of the cross walk.
+     */
+    private void drawCrossWalkLines(final Graphics2D theGraphics,
+                                 final int theX, final int theY) {
+        
+        final Paint oldPaint = theGraphics.getPaint();
+        theGraphics.setPaint(Color.WHITE);
+
+        final int leftx = theX * mySquareSize;
+        final int topy = theY * mySquareSize;
+
+        final int rightx = leftx + mySquareSize;
+        final int bottomy = topy + mySquareSize;
+
+        if (isValidIndex(theY - 1, theX) && myGrid[theY - 1][theX] == Terrain.GRASS) {
+            // GRASS is above. Let's assume GRASS is also below.
+            // DRAW lines on left and right of light
+            theGraphics.drawLine(leftx  + (int) (mySquareSize * CROSSWALK_SCALE), topy,
+                                 leftx  + (int) (mySquareSize * CROSSWALK_SCALE), bottomy);
+            theGraphics.drawLine(rightx - (int) (mySquareSize * CROSSWALK_SCALE), topy,
+                                 rightx - (int) (mySquareSize * CROSSWALK_SCALE), bottomy);
+        }
+        
+
+        if (isValidIndex(theY, theX - 1) && myGrid[theY][theX - 1] == Terrain.GRASS) {
+            // GRASS is left. Let's assume GRASS is also right.
+            // DRAW lines above and below light
+            theGraphics.drawLine(leftx, topy + (int) (mySquareSize * CROSSWALK_SCALE),
+                                 rightx, topy + (int) (mySquareSize * CROSSWALK_SCALE));
+            theGraphics.drawLine(leftx, bottomy - (int) (mySquareSize * CROSSWALK_SCALE),
+                                 rightx, bottomy - (int) (mySquareSize * CROSSWALK_SCALE));
+        }
+
+        theGraphics.setPaint(oldPaint);
+    }
+    
+    /**
+     * Draws dotted lines on streets.
+     * 
+     * @param theGraphics The Graphics context to use for drawing.
+     * @param theX The x-coordinate of the street.
+     * @param theY The y-coordinate of the street.
+     */
+    private void drawStreetLines(final Graphics2D theGraphics,
+                                 final int theX, final int theY) {
+        
+        final Paint oldPaint = theGraphics.getPaint();
+        theGraphics.setPaint(Color.YELLOW);
+
+        final int leftx = theX * mySquareSize;
+        final int topy = theY * mySquareSize;
+        final int centerx = leftx + mySquareSize / 2;
+        final int centery = topy + mySquareSize / 2;
+        final int rightx = leftx + mySquareSize;
+        final int bottomy = topy + mySquareSize;
+
+        if (isValidIndex(theY - 1, theX) && myGrid[theY - 1][theX] == Terrain.STREET) {
+            theGraphics.drawLine(centerx, centery, centerx, topy); // above
+        }
+        if (isValidIndex(theY + 1, theX) && myGrid[theY + 1][theX] == Terrain.STREET) {
+            theGraphics.drawLine(centerx, centery, centerx, bottomy); // below
+        }
+        if (isValidIndex(theY, theX - 1) && myGrid[theY][theX - 1] == Terrain.STREET) {
+            theGraphics.drawLine(centerx, centery, leftx, centery); // left
+        }
+        if (isValidIndex(theY, theX + 1) && myGrid[theY][theX + 1] == Terrain.STREET) {
+            theGraphics.drawLine(centerx, centery, rightx, centery); // right
+        }
+
+        theGraphics.setPaint(oldPaint);
+    }
+    
+    /**
+     * Tests whether the square at the given x/y position exists on the map.
+     * 
+     * @param theX The x position.
+     * @param theY The y position.
+     * @return true if the position exists on the map, false otherwise.
+     */
+    private boolean isValidIndex(final int theY, final int theX) {
+        return theY >= 0 && theY < myGrid.length
+            && theX >= 0 && theX < myGrid[theY].length;
+    }
+
+    /*
+        Divides, rounding up
+     */
+    private static int ceilDiv(final int theDividend, final int theDivisor) {
+        return (theDividend + theDivisor - 1) / theDivisor;
+    }
+}
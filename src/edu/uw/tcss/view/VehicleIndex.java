@@ -0,0 +1,139 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.view;
+
+import edu.uw.tcss.logic.TickSnapshot;
+import java.util.function.IntConsumer;
+
+/**
+ * The vehicles of one snapshot bucketed by area of the map, so painting a small
+ * part of a large map only visits the vehicles near it. Buckets are filled with a
+ * counting sort that keeps vehicles in snapshot order within each bucket, so
+ * vehicles sharing a square are drawn in the same order as without the index.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 4
+ */
+final class VehicleIndex {
+
+    /**
+     * The number of squares along each side of a bucket.
+     */
+    private static final int BUCKET_SQUARES = 16;
+
+    /**
+     * The snapshot being indexed.
+     */
+    private final TickSnapshot myVehicles;
+
+    /**
+     * The number of bucket columns.
+     */
+    private final int myColumns;
+
+    /**
+     * The number of bucket rows.
+     */
+    private final int myRows;
+
+    /**
+     * Where each bucket starts in myOrder, plus the end of the last bucket.
+     */
+    private final int[] myStart;
+
+    /**
+     * The snapshot index of every vehicle, grouped by bucket.
+     */
+    private final int[] myOrder;
+
+    /**
+     * Indexes the vehicles of a snapshot.
+     *
+     * @param theVehicles the snapshot
+     * @param theWidth the width of the map in squares
+     * @param theHeight the height of the map in squares
+     */
+    VehicleIndex(final TickSnapshot theVehicles, final int theWidth, final int theHeight) {
+        myVehicles = theVehicles;
+        myColumns = Math.max(1, (theWidth + BUCKET_SQUARES - 1) / BUCKET_SQUARES);
+        myRows = Math.max(1, (theHeight + BUCKET_SQUARES - 1) / BUCKET_SQUARES);
+        myStart = new int[myColumns * myRows + 1];
+        myOrder = new int[theVehicles.size()];
+
+        for (int i = 0; i < theVehicles.size(); i++) {
+            myStart[bucket(theVehicles.getX(i), theVehicles.getY(i)) + 1]++;
+        }
+        for (int b = 1; b < myStart.length; b++) {
+            myStart[b] += myStart[b - 1];
+        }
+        final int[] next = myStart.clone();
+        for (int i = 0; i < theVehicles.size(); i++) {
+            myOrder[next[bucket(theVehicles.getX(i), theVehicles.getY(i))]++] = i;
+        }
+    }
+
+    /**
+     * Returns the snapshot being indexed.
+     *
+     * @return the snapshot
+     */
+    TickSnapshot getVehicles() {
+        return myVehicles;
+    }
+
+    /**
+     * Calls the action with the index of every vehicle on a square in the given
+     * range, bucket by bucket.
+     *
+     * @param theFirstX the first column of squares
+     * @param theFirstY the first row of squares
+     * @param theLastX the last column of squares, inclusive
+     * @param theLastY the last row of squares, inclusive
+     * @param theAction called with the snapshot index of each vehicle in range
+     */
+    void forEachIn(final int theFirstX, final int theFirstY, final int theLastX,
+                   final int theLastY, final IntConsumer theAction) {
+        final int firstColumn = clamp(theFirstX / BUCKET_SQUARES, myColumns);
+        final int lastColumn = clamp(theLastX / BUCKET_SQUARES, myColumns);
+        final int firstRow = clamp(theFirstY / BUCKET_SQUARES, myRows);
+        final int lastRow = clamp(theLastY / BUCKET_SQUARES, myRows);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                final int b = row * myColumns + column;
+                for (int k = myStart[b]; k < myStart[b + 1]; k++) {
+                    final int i = myOrder[k];
+                    final int x = myVehicles.getX(i);
+                    final int y = myVehicles.getY(i);
+                    if (x >= theFirstX && x <= theLastX && y >= theFirstY && y <= theLastY) {
+                        theAction.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket of a square; squares off the map go to the nearest bucket.
+     *
+     * @param theX the x coordinate
+     * @param theY the y coordinate
+     * @return the bucket
+     */
+    private int bucket(final int theX, final int theY) {
+        return clamp(theY / BUCKET_SQUARES, myRows) * myColumns
+               + clamp(theX / BUCKET_SQUARES, myColumns);
+    }
+
+    /**
+     * Clamps a bucket coordinate into range.
+     *
+     * @param theValue the coordinate
+     * @param theCount the number of buckets along that side
+     * @return the clamped coordinate
+     */
+    private static int clamp(final int theValue, final int theCount) {
+        return Math.max(0, Math.min(theCount - 1, theValue));
+    }
+}
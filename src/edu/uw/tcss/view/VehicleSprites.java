@@ -0,0 +1,107 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.view;
+
+import edu.uw.tcss.model.AbstractVehicle;
+import edu.uw.tcss.model.Atv;
+import edu.uw.tcss.model.Bicycle;
+import edu.uw.tcss.model.Car;
+import edu.uw.tcss.model.Human;
+import edu.uw.tcss.model.Taxi;
+import edu.uw.tcss.model.Truck;
+import edu.uw.tcss.model.Vehicle;
+import java.awt.Image;
+import java.awt.MediaTracker;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.ImageIcon;
+
+/**
+ * A cache of vehicle images shared by every panel, keyed by vehicle class and by 
+ * whether the vehicle is alive. The images of the vehicle classes that ship with 
+ * the game are read once, by {@link #preload()} when the GUI starts, so painting 
+ * never waits on the disk. Other classes are read the first time they are drawn.
+ * 
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+final class VehicleSprites {
+
+    /**
+     * The directory holding the vehicle images.
+     */
+    private static final String ICON_DIRECTORY = "icons//";
+
+    /**
+     * The vehicle classes that ship with the game.
+     */
+    private static final List<Class<? extends Vehicle>> VEHICLE_TYPES = 
+        List.of(Atv.class, Bicycle.class, Car.class, Human.class, Taxi.class, Truck.class);
+
+    /**
+     * The alive and dead images of each vehicle class.
+     */
+    private static final Map<Class<?>, Image[]> SPRITES = new ConcurrentHashMap<>();
+
+    /**
+     * A private constructor, to prevent external instantiation.
+     */
+    private VehicleSprites() {
+        super();
+    }
+
+    /**
+     * Reads the alive and dead images of every vehicle class that ships with the 
+     * game. Call when the GUI starts, before anything is painted.
+     */
+    static void preload() {
+        for (final Class<? extends Vehicle> type : VEHICLE_TYPES) {
+            SPRITES.computeIfAbsent(type, theKey -> new Image[] {
+                load(AbstractVehicle.getImageFileName(type, true)),
+                load(AbstractVehicle.getImageFileName(type, false)),
+            });
+        }
+    }
+
+    /**
+     * Returns the image for a vehicle class in the given state.
+     * 
+     * @param theType the vehicle class
+     * @param theAlive whether the vehicle is alive
+     * @param theFileName the image file name, only read if the image is not cached
+     * @return the image
+     */
+    static Image get(final Class<?> theType, final boolean theAlive,
+                     final String theFileName) {
+        final Image[] images = SPRITES.computeIfAbsent(theType, theKey -> new Image[2]);
+        final int state;
+        if (theAlive) {
+            state = 0;
+        } else {
+            state = 1;
+        }
+        if (images[state] == null) {
+            images[state] = load(theFileName);
+        }
+        return images[state];
+    }
+
+    /**
+     * Reads an image from the icons directory, falling back to the classpath.
+     * 
+     * @param theFileName the image file name
+     * @return the image
+     */
+    private static Image load(final String theFileName) {
+        final String imageFilename = ICON_DIRECTORY + theFileName;
+        ImageIcon imgIcon = new ImageIcon(imageFilename);
+
+        if (imgIcon.getImageLoadStatus() != MediaTracker.COMPLETE) {
+            imgIcon = new ImageIcon(VehicleSprites.class.getResource(imageFilename));
+        }
+        return imgIcon.getImage();
+    }
+}
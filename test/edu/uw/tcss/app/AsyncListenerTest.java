@@ -0,0 +1,108 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.AsyncListener;
+import edu.uw.tcss.logic.OverflowPolicy;
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.TickSnapshot;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for class AsyncListener.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public class AsyncListenerTest {
+
+    /**
+     * The number of ticks to run while the listener is blocked.
+     */
+    private static final int TICKS = 200;
+
+    /**
+     * The capacity of each listener's queue.
+     */
+    private static final int CAPACITY = 8;
+
+    /** Test that a blocked listener drops the oldest events and gets the rest in order. */
+    @Test
+    public void testDropOldest() throws IOException, InterruptedException {
+        final List<PropertyChangeEvent> events = runBlocked(PROPERTY_TIME,
+                                                            OverflowPolicy.DROP_OLDEST);
+        // the first event was taken before the listener blocked; the rest are the newest
+        assertEquals(1 + CAPACITY, events.size(), "wrong number of events delivered");
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(TICKS - CAPACITY + i, (long) (Long) events.get(i).getNewValue(),
+                    "wrong time step delivered");
+        }
+    }
+
+    /** Test that a blocked listener coalesces each property to its latest event. */
+    @Test
+    public void testCoalesceLatest() throws IOException, InterruptedException {
+        final List<PropertyChangeEvent> events = runBlocked(PROPERTY_SNAPSHOT,
+                                                            OverflowPolicy.COALESCE_LATEST);
+        assertEquals(2, events.size(), "snapshots not coalesced");
+        final TickSnapshot last = (TickSnapshot) events.get(1).getNewValue();
+        assertEquals(TICKS, last.getTimestep(), "latest snapshot not delivered");
+    }
+
+    /*  Runs the simulation while an async listener is blocked, then returns its events  */
+    private static List<PropertyChangeEvent> runBlocked(final String theProperty,
+                                                        final OverflowPolicy thePolicy)
+        throws IOException, InterruptedException {
+        final PropertyChangeEnabledRoadRageControls roadRage =
+            FileLoader.readCity(new File(FileLoader.getDefaultCityFile()));
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<PropertyChangeEvent> events = new ArrayList<>();
+        final PropertyChangeListener slow = theEvent -> {
+            events.add(theEvent);
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AsyncListener async = roadRage.addAsyncPropertyChangeListener(
+            theProperty, slow, executor, CAPACITY, thePolicy);
+
+        final int[] fired = new int[1];
+        roadRage.addPropertyChangeListener(theProperty, theEvent -> fired[0]++);
+
+        roadRage.start();
+        roadRage.advance();
+        assertTrue(blocked.await(1, TimeUnit.MINUTES), "first event never delivered");
+        for (int tick = 1; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "delivery never ended");
+        assertEquals(fired[0] - events.size(), async.getDroppedCount(),
+                "wrong number of events dropped");
+        return events;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.CityGenerator;
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.logic.TickSnapshot;
+import edu.uw.tcss.model.Terrain;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for class CityGenerator.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 6
+ */
+public class CityGeneratorTest {
+
+    /**
+     * The width of the generated maps.
+     */
+    private static final int WIDTH = 120;
+
+    /**
+     * The height of the generated maps.
+     */
+    private static final int HEIGHT = 80;
+
+    /**
+     * The seed for the generated maps.
+     */
+    private static final long SEED = 305L;
+
+    /** Test that the same seed gives the same map and another seed a different one. */
+    @Test
+    public void testSeedIsReproducible() throws IOException {
+        assertEquals(text(generator(SEED)), text(generator(SEED)), "same seed, same map");
+        assertNotEquals(text(generator(SEED)), text(generator(SEED + 1)),
+                "different seed, different map");
+    }
+
+    /** Test that a generated map loads with every terrain and the requested vehicles. */
+    @Test
+    public void testGeneratedMapLoads(@TempDir final Path theDirectory) throws IOException {
+        final CityGenerator generator = generator(SEED);
+        final Path map = theDirectory.resolve("generated.txt");
+        generator.write(map);
+
+        final Set<Terrain> terrains = EnumSet.noneOf(Terrain.class);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                terrains.add(generator.getTerrain(x, y));
+            }
+        }
+        assertEquals(EnumSet.allOf(Terrain.class), terrains, "every terrain is generated");
+
+        final PropertyChangeEnabledRoadRageControls roadRage =
+                FileLoader.readCity(map.toFile());
+        assertEquals(WIDTH, roadRage.getWidth(), "width");
+        assertEquals(HEIGHT, roadRage.getHeight(), "height");
+        final TickSnapshot[] latest = new TickSnapshot[1];
+        roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> latest[0] = (TickSnapshot) theEvent.getNewValue());
+        roadRage.start();
+
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < latest[0].size(); i++) {
+            counts.merge(latest[0].getType(i).getSimpleName(), 1, Integer::sum);
+            final Terrain start = generator.getTerrain(latest[0].getX(i), latest[0].getY(i));
+            assertTrue(start != Terrain.WALL, "vehicle " + i + " starts in a wall");
+        }
+        assertEquals(Map.of("Car", 40, "Taxi", 10, "Truck", 10, "Bicycle", 15,
+                            "Atv", 5, "Human", 20), counts, "vehicle mix");
+        for (int tick = 0; tick < 100; tick++) {
+            roadRage.advance();
+        }
+    }
+
+    /*  A generator with one of every vehicle type  */
+    private static CityGenerator generator(final long theSeed) {
+        return new CityGenerator(WIDTH, HEIGHT, theSeed)
+                .setVehicleCount('C', 40).setVehicleCount('X', 10)
+                .setVehicleCount('T', 10).setVehicleCount('B', 15)
+                .setVehicleCount('A', 5).setVehicleCount('H', 20);
+    }
+
+    /*  The generated map as text  */
+    private static String text(final CityGenerator theGenerator) throws IOException {
+        final StringWriter out = new StringWriter();
+        theGenerator.write(out);
+        return out.toString();
+    }
+}
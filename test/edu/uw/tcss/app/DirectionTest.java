@@ -0,0 +1,57 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Terrain;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Direction and Terrain lookups.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 February 23
+ */
+public class DirectionTest {
+
+    /** Test method for Direction rotations. */
+    @Test
+    public void testRotations() {
+        assertEquals(Direction.WEST, Direction.NORTH.left(), "NORTH left failed!");
+        assertEquals(Direction.SOUTH, Direction.WEST.left(), "WEST left failed!");
+        assertEquals(Direction.EAST, Direction.SOUTH.left(), "SOUTH left failed!");
+        assertEquals(Direction.NORTH, Direction.EAST.left(), "EAST left failed!");
+        for (final Direction dir : Direction.values()) {
+            assertEquals(dir, dir.left().right(), dir + " right is not the inverse of left!");
+            assertEquals(dir.left().left(), dir.reverse(), dir + " reverse failed!");
+        }
+    }
+
+    /** Test method for Direction.valueOf(char). */
+    @Test
+    public void testDirectionValueOf() {
+        for (final Direction dir : Direction.values()) {
+            assertEquals(dir, Direction.valueOf(dir.letter()), dir + " lookup failed!");
+        }
+        assertNull(Direction.valueOf('Q'), "unknown letter should have no Direction!");
+        assertNull(Direction.valueOf('\u00e9'), "non-ASCII letter should have no Direction!");
+    }
+
+    /** Test method for Terrain.valueOf(char). */
+    @Test
+    public void testTerrainValueOf() {
+        assertEquals(Terrain.STREET, Terrain.valueOf('|'), "STREET lookup failed!");
+        assertEquals(Terrain.LIGHT, Terrain.valueOf('+'), "LIGHT lookup failed!");
+        assertEquals(Terrain.WALL, Terrain.valueOf('X'), "WALL lookup failed!");
+        assertEquals(Terrain.TRAIL, Terrain.valueOf('.'), "TRAIL lookup failed!");
+        assertEquals(Terrain.CROSSWALK, Terrain.valueOf('#'), "CROSSWALK lookup failed!");
+        assertEquals(Terrain.GRASS, Terrain.valueOf('-'), "GRASS lookup failed!");
+        assertEquals(Terrain.GRASS, Terrain.valueOf('Q'), "unknown letter should be GRASS!");
+        assertEquals(Terrain.GRASS, Terrain.valueOf('\u00e9'), "non-ASCII should be GRASS!");
+    }
+}
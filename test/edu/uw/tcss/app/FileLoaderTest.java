@@ -0,0 +1,151 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_GRID;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.BinaryMap;
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Vehicle;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for class FileLoader.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 February 26
+ */
+public class FileLoaderTest {
+
+    /**
+     * The directory of shipped maps.
+     */
+    private static final File MAP_DIRECTORY = new File("maps");
+
+    /** Test that the buffer parser reads every shipped map like the Scanner parser. */
+    @Test
+    public void testParsersAgree() throws IOException {
+        final File[] maps = MAP_DIRECTORY.listFiles((theDir, theName) -> 
+                                                     theName.endsWith(".txt"));
+        assertFalse(maps == null || maps.length == 0, "no maps found in " + MAP_DIRECTORY);
+        for (final File map : maps) {
+            final List<Object> fast = describe(FileLoader.readCity(map));
+            final List<Object> slow = describe(FileLoader.readCityWithScanner(map));
+            assertEquals(slow.size(), fast.size(), map + " loaded differently");
+            assertArrayEquals((Object[]) slow.get(0), (Object[]) fast.get(0),
+                    map + " grid differs");
+            assertEquals(slow.subList(1, slow.size()), fast.subList(1, fast.size()),
+                    map + " vehicles differ");
+        }
+    }
+
+    /** Test that every shipped map survives conversion to the binary format. */
+    @Test
+    public void testBinaryMapsAgree(@TempDir final Path theDirectory) throws IOException {
+        final File[] maps = MAP_DIRECTORY.listFiles((theDir, theName) -> 
+                                                     theName.endsWith(".txt"));
+        assertFalse(maps == null || maps.length == 0, "no maps found in " + MAP_DIRECTORY);
+        for (final File map : maps) {
+            final Path binary = theDirectory.resolve(map.getName() + ".rrmap");
+            BinaryMap.convert(map.toPath(), binary);
+            assertTrue(BinaryMap.isBinaryMap(binary), binary + " not recognized");
+            assertFalse(BinaryMap.isBinaryMap(map.toPath()), map + " taken for binary");
+
+            final List<Object> text = describe(FileLoader.readCity(map));
+            final List<Object> bin = describe(FileLoader.readCity(binary.toFile()));
+            assertArrayEquals((Object[]) text.get(0), (Object[]) bin.get(0),
+                    map + " grid differs");
+            assertEquals(text.subList(1, text.size()), bin.subList(1, bin.size()),
+                    map + " vehicles differ");
+
+            final Terrain[][] grid = (Terrain[][]) text.get(0);
+            final BinaryMap mapped = BinaryMap.open(binary);
+            for (int y = 0; y < grid.length; y++) {
+                for (int x = 0; x < grid[y].length; x++) {
+                    assertEquals(grid[y][x], mapped.getTerrain(x, y),
+                            map + " terrain differs at " + x + ", " + y);
+                }
+            }
+        }
+    }
+
+    /** Test that maps read from streams and directories match maps read from files. */
+    @Test
+    public void testOtherSources(@TempDir final Path theDirectory) throws IOException {
+        final File[] maps = MAP_DIRECTORY.listFiles((theDir, theName) -> 
+                                                     theName.endsWith(".txt"));
+        assertFalse(maps == null || maps.length == 0, "no maps found in " + MAP_DIRECTORY);
+        for (final File map : maps) {
+            Files.copy(map.toPath(), theDirectory.resolve(map.getName()));
+            BinaryMap.convert(map.toPath(), theDirectory.resolve(map.getName() + ".rrmap"));
+        }
+        Files.writeString(theDirectory.resolve("notes.md"), "not a map");
+
+        final SortedMap<Path, PropertyChangeEnabledRoadRageControls> loaded =
+            FileLoader.readCities(theDirectory);
+        assertEquals(2 * maps.length, loaded.size(), "wrong number of maps loaded");
+        for (final Map.Entry<Path, PropertyChangeEnabledRoadRageControls> entry 
+             : loaded.entrySet()) {
+            final List<Object> expected = describe(FileLoader.readCity(entry.getKey()));
+            final List<Object> actual = describe(entry.getValue());
+            assertArrayEquals((Object[]) expected.get(0), (Object[]) actual.get(0),
+                    entry.getKey() + " grid differs");
+            assertEquals(expected.subList(1, expected.size()),
+                    actual.subList(1, actual.size()), entry.getKey() + " vehicles differ");
+
+            try (InputStream input = Files.newInputStream(entry.getKey())) {
+                final List<Object> streamed = 
+                    describe(FileLoader.readCity(input, entry.getKey().toString()));
+                assertEquals(expected.subList(1, expected.size()),
+                        streamed.subList(1, streamed.size()),
+                        entry.getKey() + " vehicles differ when streamed");
+            }
+        }
+
+        Files.writeString(theDirectory.resolve("broken.txt"), "2 2\nZZ\n");
+        final IOException failure = assertThrows(IOException.class, 
+            () -> FileLoader.readCities(theDirectory), "broken map not reported");
+        assertTrue(failure.getMessage().contains("broken.txt"), 
+                   "failure does not name the broken map: " + failure.getMessage());
+        assertThrows(IOException.class, () -> FileLoader.readCityResource("no/such/map.txt"),
+                     "missing resource not reported");
+    }
+
+    /*  The grid rows followed by one description per vehicle  */
+    private static List<Object> describe(final PropertyChangeEnabledRoadRageControls 
+                                         theRoadRage) {
+        final List<Object> result = new ArrayList<>();
+        theRoadRage.addPropertyChangeListener(PROPERTY_GRID, theEvent ->
+            result.add(0, theEvent.getNewValue()));
+        theRoadRage.addPropertyChangeListener(PROPERTY_VEHICLES, theEvent -> {
+            @SuppressWarnings("unchecked")
+            final List<Vehicle> vehicles = (List<Vehicle>) theEvent.getNewValue();
+            for (final Vehicle v : vehicles) {
+                result.add(v.getClass().getSimpleName() + " " + v.getX() + " " + v.getY()
+                           + " " + v.getDirection());
+            }
+        });
+        theRoadRage.start();
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.RoadRage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the Java Flight Recorder events of the simulation.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public class FlightRecorderTest {
+
+    /**
+     * The number of ticks to run.
+     */
+    private static final int TICKS = 600;
+
+    /**
+     * The number of ticks between light changes.
+     */
+    private static final int LIGHT_CHANGE_TICKS = 15;
+
+    /** Test that a recording holds the map load, every tick, light change and collision. */
+    @Test
+    public void testEventsRecorded(@TempDir final Path theDirectory) throws IOException {
+        final Path file = theDirectory.resolve("road-rage.jfr");
+        final RoadRage roadRage;
+        try (Recording recording = new Recording()) {
+            for (final String name : List.of("Tick", "Collision", "LightChange", "MapLoad")) {
+                recording.enable("edu.uw.tcss." + name).withoutThreshold();
+            }
+            recording.start();
+            roadRage = (RoadRage) FileLoader.readCity(new File(FileLoader.getDefaultCityFile()));
+            roadRage.setSeed(305L);
+            roadRage.start();
+            for (int tick = 0; tick < TICKS; tick++) {
+                roadRage.advance();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        final BitSet timesteps = new BitSet();
+        int ticks = 0;
+        int lightChanges = 0;
+        int tickCollisions = 0;
+        int collisions = 0;
+        int loads = 0;
+        for (final RecordedEvent event : events) {
+            switch (event.getEventType().getName()) {
+                case "edu.uw.tcss.Tick" -> {
+                    ticks++;
+                    timesteps.set((int) event.getLong("timestep"));
+                    assertEquals(roadRage.getVehicleStore().size(),
+                                 event.getInt("vehicleCount"), "wrong vehicle count");
+                    tickCollisions += event.getInt("collisions");
+                }
+                case "edu.uw.tcss.LightChange" -> lightChanges++;
+                case "edu.uw.tcss.Collision" -> collisions++;
+                case "edu.uw.tcss.MapLoad" -> {
+                    loads++;
+                    assertEquals(roadRage.getWidth(), event.getInt("width"), "wrong width");
+                    assertEquals(roadRage.getHeight(), event.getInt("height"),
+                                 "wrong height");
+                    assertFalse(event.getBoolean("binary"), "text map recorded as binary");
+                }
+                default -> { }
+            }
+        }
+        assertEquals(1, loads, "wrong number of map loads");
+        assertEquals(TICKS, ticks, "wrong number of ticks");
+        assertEquals(TICKS, timesteps.cardinality(), "time steps repeated");
+        assertEquals(1, timesteps.nextSetBit(0), "wrong first time step");
+        assertEquals(TICKS / LIGHT_CHANGE_TICKS, lightChanges,
+                     "wrong number of light changes");
+        assertEquals(tickCollisions, collisions,
+                     "collision events do not match the counts on the ticks");
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.LatencyHistogram;
+import edu.uw.tcss.logic.MetricsExporter;
+import edu.uw.tcss.logic.MetricsSnapshot;
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.logic.TickMode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the engine metrics of RoadRage and class MetricsExporter.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public class MetricsTest {
+
+    /**
+     * The number of ticks to run.
+     */
+    private static final int TICKS = 3000;
+
+    /**
+     * The number of ticks between light changes.
+     */
+    private static final int LIGHT_CHANGE_TICKS = 15;
+
+    /** Test that the counts add up in both tick modes. */
+    @Test
+    public void testCountsAddUp() throws IOException {
+        for (final TickMode mode : TickMode.values()) {
+            final RoadRage roadRage = load();
+            roadRage.setTickMode(mode);
+            roadRage.start();
+            assertFalse(roadRage.isMetricsEnabled(), "metrics on by default");
+            roadRage.advance();
+            assertEquals(0, roadRage.getMetrics().ticks(), "ticks counted while off");
+
+            roadRage.reset();
+            roadRage.setMetricsEnabled(true);
+            for (int tick = 0; tick < TICKS; tick++) {
+                roadRage.advance();
+            }
+            final MetricsSnapshot metrics = roadRage.getMetrics();
+            final int vehicles = roadRage.getVehicleStore().size();
+            int dead = 0;
+            for (int i = 0; i < vehicles; i++) {
+                dead += roadRage.getVehicleStore().isAlive(i) ? 0 : 1;
+            }
+
+            assertEquals(TICKS, metrics.ticks(), mode + ": wrong tick count");
+            assertEquals(TICKS / LIGHT_CHANGE_TICKS, metrics.lightChanges(),
+                    mode + ": wrong light change count");
+            assertTrue(metrics.vehiclesMoved() > 0, mode + ": nothing moved");
+            assertTrue(metrics.vehiclesBlocked() > 0, mode + ": nothing blocked");
+            assertTrue(metrics.vehiclesMoved() + metrics.vehiclesBlocked()
+                       + metrics.revivals() <= (long) TICKS * vehicles,
+                    mode + ": more moves than vehicles");
+            assertTrue(metrics.collisions() > 0, mode + ": no collisions");
+            assertTrue(metrics.deaths() <= 2 * metrics.collisions(),
+                    mode + ": more deaths than collisions allow");
+            assertEquals(dead, metrics.deaths() - metrics.revivals(),
+                    mode + ": deaths and revivals do not match the dead vehicles "
+                    + "(the map starts with every vehicle alive)");
+
+            final LatencyHistogram ticks = metrics.tickNanos();
+            assertEquals(TICKS, ticks.getCount(), mode + ": wrong number of durations");
+            assertTrue(ticks.getMin() <= ticks.getValueAtPercentile(50)
+                       && ticks.getValueAtPercentile(50) <= ticks.getValueAtPercentile(99)
+                       && ticks.getValueAtPercentile(99) <= ticks.getMax(),
+                    mode + ": percentiles out of order: " + ticks);
+            assertEquals(ticks.getMax(), ticks.getValueAtPercentile(100),
+                    mode + ": 100th percentile is not the maximum");
+        }
+    }
+
+    /** Test that the exporter writes both formats. */
+    @Test
+    public void testExport(@TempDir final Path theDirectory) throws IOException {
+        final RoadRage roadRage = load();
+        final Path csv = theDirectory.resolve("metrics.csv");
+        final Path prometheus = theDirectory.resolve("metrics.prom");
+        final MetricsExporter csvExporter = MetricsExporter.start(
+            roadRage, csv, MetricsExporter.Format.CSV, Duration.ofHours(1));
+        final MetricsExporter promExporter = MetricsExporter.start(
+            roadRage, prometheus, MetricsExporter.Format.PROMETHEUS, Duration.ofHours(1));
+        assertTrue(roadRage.isMetricsEnabled(), "exporter did not enable metrics");
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        csvExporter.close();
+        promExporter.close();
+
+        final List<String> rows = Files.readAllLines(csv);
+        assertEquals(2, rows.size(), "wrong number of CSV rows: " + rows);
+        final String[] header = rows.get(0).split(",");
+        final String[] values = rows.get(1).split(",");
+        assertEquals(header.length, values.length, "CSV row does not match the header");
+        assertEquals("ticks", header[1], "unexpected CSV header");
+        assertEquals(Integer.toString(TICKS), values[1], "wrong ticks in CSV");
+
+        final String text = Files.readString(prometheus);
+        assertTrue(text.contains("\nroad_rage_ticks_total " + TICKS + "\n"),
+                "ticks missing from Prometheus file:\n" + text);
+        assertTrue(text.contains("road_rage_tick_duration_seconds{quantile=\"0.999\"} "),
+                "p99.9 missing from Prometheus file:\n" + text);
+        assertTrue(text.contains("road_rage_tick_duration_seconds_count " + TICKS + "\n"),
+                "duration count missing from Prometheus file:\n" + text);
+    }
+
+    /*  Loads the default map  */
+    private static RoadRage load() throws IOException {
+        final RoadRage result = (RoadRage) FileLoader.readCity(
+            new File(FileLoader.getDefaultCityFile()));
+        result.setSeed(305L);
+        return result;
+    }
+}
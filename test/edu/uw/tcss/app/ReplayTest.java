@@ -0,0 +1,197 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.ReplayPlayer;
+import edu.uw.tcss.logic.ReplayRecorder;
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.logic.TickSnapshot;
+import edu.uw.tcss.model.Car;
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Terrain;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for classes ReplayRecorder and ReplayPlayer.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 7
+ */
+public class ReplayTest {
+
+    /**
+     * The number of ticks to record before and after the reset.
+     */
+    private static final int TICKS = 400;
+
+    /**
+     * Whether the class a malformed log names in place of a vehicle was initialized.
+     */
+    private static volatile boolean ourMarkerInitialized;
+
+    /** Test that a replay fires the same snapshots as the run it recorded. */
+    @Test
+    public void testReplayMatchesRun(@TempDir final Path theDirectory) throws IOException {
+        final RoadRage roadRage = (RoadRage) FileLoader.readCity(
+            new File(FileLoader.getDefaultCityFile()));
+        roadRage.setSeed(305L);
+        final List<TickSnapshot> recorded = new ArrayList<>();
+        roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> recorded.add((TickSnapshot) theEvent.getNewValue()));
+        final Path log = theDirectory.resolve("run.rrlog");
+        final ReplayRecorder recorder = ReplayRecorder.record(roadRage, log);
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        roadRage.reset();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        recorder.close();
+
+        assertTrue(ReplayPlayer.isReplayLog(log), "log not recognized");
+        final ReplayPlayer player = ReplayPlayer.open(log);
+        assertEquals(recorded.size(), player.getFrameCount(), "wrong number of frames");
+        assertEquals(roadRage.getWidth(), player.getWidth(), "wrong width");
+        assertEquals(roadRage.getHeight(), player.getHeight(), "wrong height");
+        final List<TickSnapshot> played = new ArrayList<>();
+        player.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> played.add((TickSnapshot) theEvent.getNewValue()));
+        player.start();
+        for (int frame = 1; frame < player.getFrameCount(); frame++) {
+            player.advance();
+        }
+        assertEquals(recorded.size(), played.size(), "wrong number of snapshots");
+        for (int frame = 0; frame < recorded.size(); frame++) {
+            assertSameVehicles(recorded.get(frame), played.get(frame), frame);
+        }
+
+        final int[] seeks = {3, TICKS + 7, 1, recorded.size() - 1, 2 * TICKS / 3};
+        for (final int frame : seeks) {
+            player.seek(frame);
+            assertSameVehicles(recorded.get(frame), played.get(played.size() - 1), frame);
+        }
+    }
+
+    /** Test that a frame with a value out of range is rejected when the log opens. */
+    @Test
+    public void testMalformedFrameRejected(@TempDir final Path theDirectory)
+        throws IOException {
+        final RoadRage roadRage = (RoadRage) FileLoader.readCity(
+            new File(FileLoader.getDefaultCityFile()));
+        roadRage.setSeed(305L);
+        final Path log = theDirectory.resolve("run.rrlog");
+        final ReplayRecorder recorder = ReplayRecorder.record(roadRage, log);
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        recorder.close();
+        assertEquals(TICKS + 1, ReplayPlayer.open(log).getFrameCount(),
+                "wrong number of frames");
+
+        // the last two bytes of a frame are the direction and life of its last vehicle
+        final byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 2] = Byte.MAX_VALUE;
+        Files.write(log, bytes);
+        final IOException thrown = assertThrows(IOException.class,
+            () -> ReplayPlayer.open(log), "bad direction not found");
+        assertTrue(thrown.getMessage().startsWith("Malformed replay log"),
+                "wrong message: " + thrown.getMessage());
+    }
+
+    /** Test that a map with no squares is recorded and played back. */
+    @Test
+    public void testEmptyMapRecorded(@TempDir final Path theDirectory) throws IOException {
+        final RoadRage roadRage = new RoadRage(new Terrain[0][0], List.of());
+        final Path log = theDirectory.resolve("empty.rrlog");
+        final ReplayRecorder recorder = ReplayRecorder.record(roadRage, log);
+        roadRage.start();
+        roadRage.advance();
+        recorder.close();
+
+        final ReplayPlayer player = ReplayPlayer.open(log);
+        assertEquals(0, player.getWidth(), "wrong width");
+        assertEquals(0, player.getHeight(), "wrong height");
+        assertEquals(2, player.getFrameCount(), "wrong number of frames");
+    }
+
+    /** Test that opening a log naming a class that is not a vehicle never initializes it. */
+    @Test
+    public void testVehicleTypeNotInitialized(@TempDir final Path theDirectory)
+        throws IOException {
+        final RoadRage roadRage = new RoadRage(new Terrain[][] {{Terrain.STREET}},
+                                               List.of(new Car(0, 0, Direction.EAST)));
+        final Path log = theDirectory.resolve("run.rrlog");
+        final ReplayRecorder recorder = ReplayRecorder.record(roadRage, log);
+        roadRage.start();
+        recorder.close();
+
+        // swap the vehicle type's name, which follows its length, for the marker's
+        final byte[] bytes = Files.readAllBytes(log);
+        final byte[] car = Car.class.getName().getBytes(StandardCharsets.UTF_8);
+        final byte[] marker = Marker.class.getName().getBytes(StandardCharsets.UTF_8);
+        final int start = new String(bytes, StandardCharsets.ISO_8859_1)
+            .indexOf(new String(car, StandardCharsets.ISO_8859_1)) - Short.BYTES;
+        final ByteBuffer swapped = ByteBuffer.allocate(bytes.length - car.length 
+                                                       + marker.length);
+        swapped.put(bytes, 0, start).putShort((short) marker.length).put(marker)
+            .put(bytes, start + Short.BYTES + car.length,
+                 bytes.length - start - Short.BYTES - car.length);
+        Files.write(log, swapped.array());
+
+        assertThrows(IOException.class, () -> ReplayPlayer.open(log), "marker accepted");
+        assertFalse(ourMarkerInitialized, "opening the log ran the marker's static code");
+    }
+
+    /*  Checks that two snapshots hold the same time, light and vehicles  */
+    private static void assertSameVehicles(final TickSnapshot theExpected,
+                                           final TickSnapshot theActual,
+                                           final int theFrame) {
+        assertEquals(theExpected.getTimestep(), theActual.getTimestep(),
+                "time step differs in frame " + theFrame);
+        assertEquals(theExpected.getLight(), theActual.getLight(),
+                "light differs in frame " + theFrame);
+        assertEquals(theExpected.size(), theActual.size(),
+                "vehicle count differs in frame " + theFrame);
+        for (int i = 0; i < theExpected.size(); i++) {
+            final String where = " of vehicle " + i + " differs in frame " + theFrame;
+            assertEquals(theExpected.getType(i), theActual.getType(i), "type" + where);
+            assertEquals(theExpected.getX(i), theActual.getX(i), "x" + where);
+            assertEquals(theExpected.getY(i), theActual.getY(i), "y" + where);
+            assertEquals(theExpected.getDirection(i), theActual.getDirection(i),
+                    "direction" + where);
+            assertEquals(theExpected.isAlive(i), theActual.isAlive(i), "alive" + where);
+            assertEquals(theExpected.getImageFileName(i), theActual.getImageFileName(i),
+                    "image" + where);
+        }
+    }
+
+    /**
+     * A class that is not a vehicle, which records when it is initialized.
+     */
+    private static final class Marker {
+        static {
+            ourMarkerInitialized = true;
+        }
+    }
+}
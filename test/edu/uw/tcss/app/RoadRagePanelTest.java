@@ -0,0 +1,78 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLES;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLE_DELTA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls;
+import edu.uw.tcss.view.RoadRagePanel;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for class RoadRagePanel.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 March 8
+ */
+public class RoadRagePanelTest {
+
+    /**
+     * The number of ticks to run.
+     */
+    private static final int TICKS = 50;
+
+    /** Test that the panel only listens for the properties it draws from. */
+    @Test
+    public void testPanelSkipsVehicleList() throws IOException {
+        final PropertyChangeEnabledRoadRageControls roadRage =
+            FileLoader.readCity(new File("maps/city_map1.txt"));
+        final List<String> registered = new ArrayList<>();
+        final List<String> delivered = new ArrayList<>();
+        final PropertyChangeEnabledRoadRageControls recording =
+            (PropertyChangeEnabledRoadRageControls) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {PropertyChangeEnabledRoadRageControls.class},
+                (theProxy, theMethod, theArgs) -> {
+                    final Object[] args = theArgs == null ? new Object[0] : theArgs.clone();
+                    if ("addPropertyChangeListener".equals(theMethod.getName())) {
+                        final int last = args.length - 1;
+                        final PropertyChangeListener listener =
+                            (PropertyChangeListener) args[last];
+                        registered.add(last == 0 ? null : (String) args[0]);
+                        args[last] = (PropertyChangeListener) theEvent -> {
+                            delivered.add(theEvent.getPropertyName());
+                            listener.propertyChange(theEvent);
+                        };
+                    }
+                    return theMethod.invoke(roadRage, args);
+                });
+
+        final RoadRagePanel panel = new RoadRagePanel(roadRage.getWidth(),
+                                                      roadRage.getHeight());
+        panel.listenTo(recording);
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+
+        assertEquals(RoadRagePanel.PROPERTIES, registered,
+                "panel registered for other properties");
+        assertFalse(delivered.contains(PROPERTY_VEHICLES), "panel was sent the vehicle list");
+        assertTrue(delivered.contains(PROPERTY_SNAPSHOT), "panel was sent no snapshots");
+        assertTrue(delivered.contains(PROPERTY_VEHICLE_DELTA), "panel was sent no deltas");
+    }
+}
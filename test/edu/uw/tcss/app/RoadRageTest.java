@@ -0,0 +1,596 @@
+/*
+ * TCSS 305 - Road Rage
+ */
+
+package edu.uw.tcss.app;
+
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_SNAPSHOT;
+import static edu.uw.tcss.logic.PropertyChangeEnabledRoadRageControls.PROPERTY_VEHICLE_DELTA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.uw.tcss.io.FileLoader;
+import edu.uw.tcss.logic.CollisionMode;
+import edu.uw.tcss.logic.RoadRage;
+import edu.uw.tcss.logic.TickMode;
+import edu.uw.tcss.logic.TickSnapshot;
+import edu.uw.tcss.logic.VehicleDelta;
+import edu.uw.tcss.model.Atv;
+import edu.uw.tcss.model.Bicycle;
+import edu.uw.tcss.model.Car;
+import edu.uw.tcss.model.Direction;
+import edu.uw.tcss.model.Human;
+import edu.uw.tcss.model.Light;
+import edu.uw.tcss.model.Taxi;
+import edu.uw.tcss.model.Terrain;
+import edu.uw.tcss.model.Truck;
+import edu.uw.tcss.model.Vehicle;
+import edu.uw.tcss.model.VehicleStore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for class RoadRage.
+ *
+ * @author Georgia Karwhite
+ * @version 2025 February 22
+ */
+public class RoadRageTest {
+
+    /**
+     * The number of ticks to run each simulation.
+     */
+    private static final int TICKS = 300;
+
+    /**
+     * The seed for both simulations in a comparison.
+     */
+    private static final long SEED = 305L;
+
+    /**
+     * The numbers of threads to move vehicles with in TWO_PHASE.
+     */
+    private static final int[] PARALLELISM = {1, 2, 3, 8};
+
+    /**
+     * How far the last vehicle's x is from the end of a checkpoint.
+     */
+    private static final int CHECKPOINT_X = 33;
+
+    /**
+     * How far the last vehicle's y is from the end of a checkpoint.
+     */
+    private static final int CHECKPOINT_Y = 29;
+
+    /**
+     * How far the last vehicle's life is from the end of a checkpoint.
+     */
+    private static final int CHECKPOINT_LIFE = 24;
+
+    /**
+     * A small ring road.
+     */
+    private static final String[] RING = {
+        "XXXXXXXXXX",
+        "X||||||||X",
+        "X|------|X",
+        "X|------|X",
+        "X||||||||X",
+        "XXXXXXXXXX",
+    };
+
+    /** Test that the cell index finds the same collisions as the all-pairs loop. */
+    @Test
+    public void testCollisionModesAgree() {
+        final List<Vehicle> indexedVehicles = ringVehicles();
+        final List<Vehicle> pairedVehicles = ringVehicles();
+        final RoadRage indexed = new RoadRage(grid(RING), indexedVehicles);
+        final RoadRage paired = new RoadRage(grid(RING), pairedVehicles);
+        indexed.setCollisionMode(CollisionMode.CELL_INDEX);
+        paired.setCollisionMode(CollisionMode.ALL_PAIRS);
+        assertRunsAgree(indexed, indexedVehicles, paired, pairedVehicles);
+
+        final List<Vehicle> indexedTwoPhase = ringVehicles();
+        final List<Vehicle> pairedTwoPhase = ringVehicles();
+        final RoadRage twoPhaseIndexed = new RoadRage(grid(RING), indexedTwoPhase);
+        final RoadRage twoPhasePaired = new RoadRage(grid(RING), pairedTwoPhase);
+        twoPhaseIndexed.setTickMode(TickMode.TWO_PHASE);
+        twoPhasePaired.setTickMode(TickMode.TWO_PHASE);
+        twoPhaseIndexed.setCollisionMode(CollisionMode.CELL_INDEX);
+        twoPhasePaired.setCollisionMode(CollisionMode.ALL_PAIRS);
+        assertRunsAgree(twoPhaseIndexed, indexedTwoPhase, twoPhasePaired, pairedTwoPhase);
+    }
+
+    /** Test that TWO_PHASE makes the same moves however many threads move vehicles. */
+    @Test
+    public void testTwoPhaseIgnoresParallelism() throws Exception {
+        final List<TickSnapshot> expected = runTwoPhase();
+        for (final int threads : PARALLELISM) {
+            for (int repeat = 0; repeat < 2; repeat++) {
+                final ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    // a parallel stream started inside a pool runs in that pool
+                    final List<TickSnapshot> actual = pool.submit(() -> runTwoPhase()).get();
+                    for (int tick = 0; tick < expected.size(); tick++) {
+                        final TickSnapshot a = expected.get(tick);
+                        final TickSnapshot b = actual.get(tick);
+                        final String where = " on tick " + tick + " with " + threads 
+                                             + " threads";
+                        for (int i = 0; i < a.size(); i++) {
+                            assertEquals(a.getX(i), b.getX(i), "x differs" + where);
+                            assertEquals(a.getY(i), b.getY(i), "y differs" + where);
+                            assertEquals(a.getDirection(i), b.getDirection(i),
+                                    "direction differs" + where);
+                            assertEquals(a.isAlive(i), b.isAlive(i),
+                                    "alive differs" + where);
+                        }
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /** Test that two simulations with the same seed make the same moves. */
+    @Test
+    public void testSeedIsReproducible() {
+        final List<Vehicle> firstVehicles = ringVehicles();
+        final List<Vehicle> secondVehicles = ringVehicles();
+        final RoadRage first = new RoadRage(grid(RING), firstVehicles);
+        final RoadRage second = new RoadRage(grid(RING), secondVehicles);
+        assertRunsAgree(first, firstVehicles, second, secondVehicles);
+    }
+
+    /** Test that each snapshot matches the vehicles and does not change afterwards. */
+    @Test
+    public void testSnapshotsAreFrozen() {
+        final List<Vehicle> vehicles = ringVehicles();
+        final RoadRage roadRage = new RoadRage(grid(RING), vehicles);
+        final List<TickSnapshot> snapshots = new ArrayList<>();
+        roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> snapshots.add((TickSnapshot) theEvent.getNewValue()));
+        roadRage.setSeed(SEED);
+        roadRage.start();
+
+        final List<int[]> expected = new ArrayList<>();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+            final int[] state = new int[vehicles.size() * 4];
+            for (int i = 0; i < vehicles.size(); i++) {
+                final Vehicle v = vehicles.get(i);
+                state[4 * i] = v.getX();
+                state[4 * i + 1] = v.getY();
+                state[4 * i + 2] = v.getDirection().ordinal();
+                state[4 * i + 3] = v.isAlive() ? 1 : 0;
+            }
+            expected.add(state);
+        }
+
+        // one snapshot from start(), then one per tick
+        assertEquals(TICKS + 1, snapshots.size(), "one snapshot per tick");
+        for (int tick = 0; tick < TICKS; tick++) {
+            final TickSnapshot snapshot = snapshots.get(tick + 1);
+            final int[] state = expected.get(tick);
+            assertEquals(tick + 1, snapshot.getTimestep(), "timestep of snapshot " + tick);
+            for (int i = 0; i < vehicles.size(); i++) {
+                assertEquals(state[4 * i], snapshot.getX(i), "x differs on tick " + tick);
+                assertEquals(state[4 * i + 1], snapshot.getY(i), "y differs on tick " + tick);
+                assertEquals(state[4 * i + 2], snapshot.getDirection(i).ordinal(),
+                        "direction differs on tick " + tick);
+                assertEquals(state[4 * i + 3] == 1, snapshot.isAlive(i),
+                        "alive differs on tick " + tick);
+                assertEquals(vehicles.get(i).getClass(), snapshot.getType(i),
+                        "type differs on tick " + tick);
+            }
+        }
+    }
+
+    /** Test that each delta holds exactly the vehicles that changed since the last snapshot. */
+    @Test
+    public void testDeltasHoldChangedVehicles() {
+        final RoadRage roadRage = new RoadRage(grid(RING), ringVehicles());
+        final List<TickSnapshot> snapshots = new ArrayList<>();
+        final List<VehicleDelta> deltas = new ArrayList<>();
+        roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> snapshots.add((TickSnapshot) theEvent.getNewValue()));
+        roadRage.addPropertyChangeListener(PROPERTY_VEHICLE_DELTA,
+            theEvent -> deltas.add((VehicleDelta) theEvent.getNewValue()));
+        roadRage.setSeed(SEED);
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+
+        assertEquals(TICKS, deltas.size(), "one delta per tick after the first snapshot");
+        boolean anyUnchanged = false;
+        for (int tick = 0; tick < TICKS; tick++) {
+            final TickSnapshot before = snapshots.get(tick);
+            final TickSnapshot after = snapshots.get(tick + 1);
+            final VehicleDelta delta = deltas.get(tick);
+            assertEquals(after.getTimestep(), delta.getTimestep(), "delta timestep");
+            int change = 0;
+            for (int i = 0; i < after.size(); i++) {
+                final boolean changed = before.getX(i) != after.getX(i)
+                        || before.getY(i) != after.getY(i)
+                        || before.getDirection(i) != after.getDirection(i)
+                        || before.isAlive(i) != after.isAlive(i);
+                anyUnchanged |= !changed;
+                if (changed) {
+                    assertEquals(i, delta.getIndex(change), "changed vehicle on tick " + tick);
+                    assertEquals(before.getX(i), delta.getOldX(change), "old x on tick " + tick);
+                    assertEquals(before.getY(i), delta.getOldY(change), "old y on tick " + tick);
+                    assertEquals(after.getX(i), delta.getX(change), "x on tick " + tick);
+                    assertEquals(after.getY(i), delta.getY(change), "y on tick " + tick);
+                    assertEquals(after.getDirection(i), delta.getDirection(change),
+                            "direction on tick " + tick);
+                    assertEquals(after.isAlive(i), delta.isAlive(change),
+                            "alive on tick " + tick);
+                    change++;
+                }
+            }
+            assertEquals(change, delta.size(), "number of changes on tick " + tick);
+        }
+        assertTrue(anyUnchanged, "the fixture should leave some vehicle unchanged");
+    }
+
+    /** Test that a simulation restored from a checkpoint continues like the original. */
+    @Test
+    public void testCheckpointRestores() throws IOException {
+        final List<Vehicle> originalVehicles = ringVehicles();
+        final List<Vehicle> restoredVehicles = ringVehicles();
+        final RoadRage original = new RoadRage(grid(RING), originalVehicles);
+        final RoadRage restored = new RoadRage(grid(RING), restoredVehicles);
+        original.setSeed(SEED);
+        original.start();
+        for (int tick = 0; tick < TICKS / 2; tick++) {
+            original.advance();
+        }
+        final ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        original.saveCheckpoint(checkpoint);
+
+        restored.setSeed(SEED + 1);
+        restored.start();
+        restored.advance();
+        restored.restoreCheckpoint(new ByteArrayInputStream(checkpoint.toByteArray()));
+        assertEquals(SEED, restored.getSeed(), "seed not restored");
+
+        for (int tick = TICKS / 2; tick < TICKS; tick++) {
+            original.advance();
+            restored.advance();
+            final TickSnapshot a = TickSnapshot.of(tick, null, originalVehicles);
+            final TickSnapshot b = TickSnapshot.of(tick, null, restoredVehicles);
+            for (int i = 0; i < a.size(); i++) {
+                assertEquals(a.getX(i), b.getX(i), "x differs on tick " + tick);
+                assertEquals(a.getY(i), b.getY(i), "y differs on tick " + tick);
+                assertEquals(a.getDirection(i), b.getDirection(i),
+                        "direction differs on tick " + tick);
+                assertEquals(a.isAlive(i), b.isAlive(i), "alive differs on tick " + tick);
+            }
+        }
+
+        final RoadRage other = new RoadRage(grid(RING), List.of(new Car(1, 1, Direction.EAST)));
+        assertThrows(IOException.class, () -> other.restoreCheckpoint(
+            new ByteArrayInputStream(checkpoint.toByteArray())), "vehicle count not checked");
+    }
+
+    /** Test that a checkpoint with a vehicle off the map or with negative life is rejected. */
+    @Test
+    public void testCheckpointOutOfRangeRejected() throws IOException {
+        final RoadRage roadRage = new RoadRage(grid(RING), ringVehicles());
+        roadRage.start();
+        final ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        roadRage.saveCheckpoint(checkpoint);
+        final byte[] bytes = checkpoint.toByteArray();
+        final int width = RING[0].length();
+        final int height = RING.length;
+        // the last vehicle's x, y and life, counted back from the end of its record
+        final int[][] corruptions = {
+            {CHECKPOINT_X, -1}, {CHECKPOINT_X, width}, {CHECKPOINT_Y, -1},
+            {CHECKPOINT_Y, height}, {CHECKPOINT_LIFE, -1},
+        };
+        for (final int[] corruption : corruptions) {
+            final byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(corrupt.length - corruption[0], corruption[1]);
+            roadRage.advance();
+            final TickSnapshot before = roadRage.takeSnapshot();
+            assertThrows(IOException.class,
+                () -> roadRage.restoreCheckpoint(new ByteArrayInputStream(corrupt)),
+                "value " + corruption[1] + " at " + corruption[0] + " not rejected");
+            final TickSnapshot after = roadRage.takeSnapshot();
+            assertEquals(before.getTimestep(), after.getTimestep(), "time was restored");
+            for (int i = 0; i < before.size(); i++) {
+                assertEquals(before.getX(i), after.getX(i), "x was restored");
+                assertEquals(before.getY(i), after.getY(i), "y was restored");
+                assertEquals(before.isAlive(i), after.isAlive(i), "life was restored");
+            }
+        }
+    }
+
+    /** Test that taking checkpoints does not change the run being checkpointed. */
+    @Test
+    public void testCheckpointHasNoEffect() throws IOException {
+        final List<Vehicle> savedVehicles = ringVehicles();
+        final List<Vehicle> plainVehicles = ringVehicles();
+        final RoadRage saved = new RoadRage(grid(RING), savedVehicles);
+        final RoadRage plain = new RoadRage(grid(RING), plainVehicles);
+        saved.setSeed(SEED);
+        plain.setSeed(SEED);
+        saved.start();
+        plain.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            saved.saveCheckpoint(new ByteArrayOutputStream());
+            saved.advance();
+            plain.advance();
+            final TickSnapshot a = TickSnapshot.of(tick, null, savedVehicles);
+            final TickSnapshot b = TickSnapshot.of(tick, null, plainVehicles);
+            for (int i = 0; i < a.size(); i++) {
+                assertEquals(b.getX(i), a.getX(i), "x differs on tick " + tick);
+                assertEquals(b.getY(i), a.getY(i), "y differs on tick " + tick);
+                assertEquals(b.getDirection(i), a.getDirection(i),
+                        "direction differs on tick " + tick);
+                assertEquals(b.isAlive(i), a.isAlive(i), "alive differs on tick " + tick);
+            }
+        }
+    }
+
+    /** Test that a vehicle joins only one simulation, keeping state used on its own. */
+    @Test
+    public void testVehiclesBelongToOneSimulation() {
+        final Car car = new Car(1, 1, Direction.EAST);
+        car.setX(2);
+        final List<Vehicle> vehicles = List.of(car, new Human(3, 2, Direction.EAST));
+        final RoadRage roadRage = new RoadRage(grid(RING), vehicles);
+        assertEquals(2, roadRage.getVehicleStore().getX(0), "state used on its own lost");
+        car.reset();
+        assertEquals(1, roadRage.getVehicleStore().getX(0), "starting state lost");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new RoadRage(grid(RING), vehicles), "vehicles taken from a simulation");
+        final Car twice = new Car(1, 1, Direction.EAST);
+        assertThrows(IllegalArgumentException.class,
+            () -> new RoadRage(grid(RING), List.of(twice, twice)), "vehicle added twice");
+    }
+
+    /** Test that a simulation takes over the store a loader created its vehicles in. */
+    @Test
+    public void testSimulationClaimsLoaderStore() {
+        final VehicleStore store = new VehicleStore(1);
+        final List<Vehicle> vehicles = List.of(new Car(store, 1, 1, Direction.EAST),
+                                               new Human(store, 3, 2, Direction.EAST));
+        final RoadRage roadRage = new RoadRage(grid(RING), vehicles);
+        assertSame(store, roadRage.getVehicleStore(), "loader's store was copied");
+        assertEquals(3, store.getX(1), "store grew without keeping the vehicles");
+        assertThrows(IllegalArgumentException.class,
+            () -> new Car(store, 1, 1, Direction.EAST), "vehicle added to a simulation");
+
+        final VehicleStore partial = new VehicleStore(2);
+        final Car kept = new Car(partial, 1, 1, Direction.EAST);
+        new Car(partial, 3, 2, Direction.EAST);
+        final RoadRage copied = new RoadRage(grid(RING), List.of(kept));
+        assertNotSame(partial, copied.getVehicleStore(), "store claimed with extra vehicles");
+        assertEquals(1, copied.getVehicleStore().size(), "copied store has extra vehicles");
+    }
+
+    /** Test that vehicles see the neighbors the old HashMap construction gave them. */
+    @Test
+    public void testNeighborsMatchHashMap() throws IOException {
+        for (final String map : new String[] {"maps/city_map1.txt", "maps/city_map2.txt"}) {
+            final List<String> lines = Files.readAllLines(Path.of(map));
+            final int rows = Integer.parseInt(lines.get(0).trim().split("\\s+")[0]);
+            assertNeighborsMatch(map, grid(lines.subList(1, rows + 1).toArray(new String[0])));
+        }
+        assertNeighborsMatch("ragged rows", grid("X|+", "X|||-", "|", "-||X"));
+    }
+
+    /*  Runs both simulations from the same seed and compares every vehicle each tick  */
+    private static void assertRunsAgree(final RoadRage theFirst,
+                                        final List<Vehicle> theFirstVehicles,
+                                        final RoadRage theSecond,
+                                        final List<Vehicle> theSecondVehicles) {
+        theFirst.setSeed(SEED);
+        theSecond.setSeed(SEED);
+        theFirst.start();
+        theSecond.start();
+
+        boolean anyDeath = false;
+        for (int tick = 0; tick < TICKS; tick++) {
+            theFirst.advance();
+            theSecond.advance();
+            for (int i = 0; i < theFirstVehicles.size(); i++) {
+                final Vehicle a = theFirstVehicles.get(i);
+                final Vehicle b = theSecondVehicles.get(i);
+                assertEquals(b.getX(), a.getX(), "x differs on tick " + tick);
+                assertEquals(b.getY(), a.getY(), "y differs on tick " + tick);
+                assertEquals(b.getDirection(), a.getDirection(),
+                        "direction differs on tick " + tick);
+                assertEquals(b.isAlive(), a.isAlive(), "alive differs on tick " + tick);
+                anyDeath |= !a.isAlive();
+            }
+        }
+        assertTrue(anyDeath, "the fixture should produce at least one collision");
+    }
+
+    /*  Runs the city map in TWO_PHASE from the seed, returning the snapshot of each tick  */
+    private static List<TickSnapshot> runTwoPhase() throws IOException {
+        final RoadRage roadRage = (RoadRage) FileLoader.readCity(
+            new File(FileLoader.getDefaultCityFile()));
+        roadRage.setTickMode(TickMode.TWO_PHASE);
+        roadRage.setSeed(SEED);
+        final List<TickSnapshot> result = new ArrayList<>();
+        roadRage.addPropertyChangeListener(PROPERTY_SNAPSHOT,
+            theEvent -> result.add((TickSnapshot) theEvent.getNewValue()));
+        roadRage.start();
+        for (int tick = 0; tick < TICKS; tick++) {
+            roadRage.advance();
+        }
+        return result;
+    }
+
+    /*  Puts a probe on every square and checks the neighbors each probe is given  */
+    private static void assertNeighborsMatch(final String theName, final Terrain[][] theGrid) {
+        final List<Vehicle> probes = new ArrayList<>();
+        for (int y = 0; y < theGrid.length; y++) {
+            for (int x = 0; x < theGrid[y].length; x++) {
+                probes.add(new NeighborProbe(x, y));
+            }
+        }
+        final RoadRage roadRage = new RoadRage(theGrid, probes);
+        roadRage.start();
+        roadRage.advance();
+        for (final Vehicle v : probes) {
+            // the HashMap construction RoadRage used before NeighborTable
+            final Map<Direction, Terrain> expected = new HashMap<>();
+            for (final Direction dir : Direction.values()) {
+                final int x = v.getX() + dir.dx();
+                final int y = v.getY() + dir.dy();
+                if (y >= 0 && y < theGrid.length && x >= 0 && x < theGrid[y].length) {
+                    expected.put(dir, theGrid[y][x]);
+                }
+            }
+            assertEquals(expected, ((NeighborProbe) v).myNeighbors,
+                    "neighbors differ at " + v.getX() + ", " + v.getY() + " on " + theName);
+        }
+    }
+
+    /*  A mix of vehicles that share the ring road and the grass inside it  */
+    private static List<Vehicle> ringVehicles() {
+        return List.of(new Car(1, 1, Direction.EAST),
+                new Car(8, 4, Direction.WEST),
+                new Taxi(5, 1, Direction.WEST),
+                new Bicycle(3, 4, Direction.EAST),
+                new Truck(8, 1, Direction.SOUTH),
+                new Atv(1, 4, Direction.NORTH),
+                new Human(3, 2, Direction.EAST),
+                new Human(6, 3, Direction.WEST));
+    }
+
+    /*  Builds a terrain grid from rows of map characters  */
+    private static Terrain[][] grid(final String... theRows) {
+        final Terrain[][] result = new Terrain[theRows.length][];
+        for (int y = 0; y < theRows.length; y++) {
+            result[y] = new Terrain[theRows[y].length()];
+            for (int x = 0; x < theRows[y].length(); x++) {
+                result[y][x] = Terrain.valueOf(theRows[y].charAt(x));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A vehicle that stays put and records the neighbors it was last given.
+     */
+    private static final class NeighborProbe implements Vehicle {
+
+        /**
+         * The x coordinate.
+         */
+        private final int myX;
+
+        /**
+         * The y coordinate.
+         */
+        private final int myY;
+
+        /**
+         * The neighbors last given to chooseDirection, or null.
+         */
+        private Map<Direction, Terrain> myNeighbors;
+
+        /**
+         * Creates a probe on a square.
+         *
+         * @param theX the x coordinate
+         * @param theY the y coordinate
+         */
+        NeighborProbe(final int theX, final int theY) {
+            myX = theX;
+            myY = theY;
+        }
+
+        @Override
+        public boolean canPass(final Terrain theTerrain, final Light theLight) {
+            return false;
+        }
+
+        @Override
+        public Direction chooseDirection(final Map<Direction, Terrain> theNeighbors) {
+            myNeighbors = theNeighbors;
+            return Direction.NORTH;
+        }
+
+        @Override
+        public void collide(final Vehicle theOther) {
+            // probes never die
+        }
+
+        @Override
+        public int getDeathTime() {
+            return 0;
+        }
+
+        @Override
+        public String getImageFileName() {
+            return "car.gif";
+        }
+
+        @Override
+        public Direction getDirection() {
+            return Direction.NORTH;
+        }
+
+        @Override
+        public int getX() {
+            return myX;
+        }
+
+        @Override
+        public int getY() {
+            return myY;
+        }
+
+        @Override
+        public boolean isAlive() {
+            return true;
+        }
+
+        @Override
+        public void poke() {
+            // probes never die
+        }
+
+        @Override
+        public void reset() {
+            // probes never move
+        }
+
+        @Override
+        public void setDirection(final Direction theDir) {
+            // probes always face north
+        }
+
+        @Override
+        public void setX(final int theX) {
+            // probes never move
+        }
+
+        @Override
+        public void setY(final int theY) {
+            // probes never move
+        }
+    }
+}